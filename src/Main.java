@@ -1,12 +1,77 @@
 import com.System.Controller;
 import com.System.InventorySystem;
+import com.System.JournalPolicy;
 import com.System.View;
+import com.TradingCard.CardCollection;
+import com.TradingCard.ColumnarCardCollection;
+import com.TradingCard.IndexedCardCollection;
+import com.TradingCard.OffHeapCardCollection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionException;
 
 public class Main {
+    private static final String DEFAULT_JOURNAL = "tcis.journal"; // kept in the working directory
+    private static final String DEFAULT_SNAPSHOT = "tcis.snapshot"; // points at tcis.snapshot.<n>
+
     public static void main(String[] args) {
-        InventorySystem inventorySystem = new InventorySystem();
         View view = new View();
+        // "--columnar" or "--off-heap" select compact storage for very large collections
+        String mode = "";
+        String journal = DEFAULT_JOURNAL;
+        String snapshot = DEFAULT_SNAPSHOT;
+        // "--durability=op", "=<n>ms" or "=<n>records" trades crash safety for throughput
+        JournalPolicy durability = JournalPolicy.perOperation();
+        for (String arg : args) {
+            if (arg.startsWith("--journal=")) journal = arg.substring("--journal=".length());
+            else if (arg.startsWith("--snapshot=")) snapshot = arg.substring("--snapshot=".length());
+            else if (arg.startsWith("--durability=")) {
+                try {
+                    durability = JournalPolicy.parse(arg.substring("--durability=".length()));
+                } catch (IllegalArgumentException e) {
+                    view.showError("invalid --durability option: " + e.getMessage());
+                    return;
+                }
+            } else {
+                mode = arg.toLowerCase();
+            }
+        }
+        Path snapshotPath = Path.of(snapshot);
+        boolean restore = Files.exists(snapshotPath);
+        InventorySystem inventorySystem;
+        try {
+            if (restore && mode.isEmpty()) {
+                inventorySystem = InventorySystem.openSnapshot(snapshotPath); // mapped, read as used
+            } else {
+                CardCollection collection = switch (mode) {
+                    case "--columnar" -> new ColumnarCardCollection();
+                    case "--off-heap" -> new OffHeapCardCollection();
+                    default -> new IndexedCardCollection();
+                };
+                inventorySystem = new InventorySystem(collection);
+                if (restore) inventorySystem.loadSnapshot(snapshotPath);
+            }
+            inventorySystem.openJournal(Path.of(journal), durability); // replays what the snapshot lacks
+        } catch (IOException e) {
+            view.showError("unable to restore the previous session: " + e.getMessage());
+            return;
+        }
         Controller controller = new Controller(view, inventorySystem);
         controller.run();
+        if (!restore || inventorySystem.getJournalMetrics().getRecords() > 0) {
+            try {
+                inventorySystem.saveSnapshot(snapshotPath).join(); // and the journal keeps only what follows it
+            } catch (UncheckedIOException | CompletionException e) {
+                view.showError("unable to save snapshot: " + e.getMessage());
+            }
+        }
+        try {
+            inventorySystem.closeJournal();
+        } catch (IOException e) {
+            view.showError("unable to close journal: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,331 @@
+package com.System;
+
+import com.TradingCard.Card;
+import com.TradingCard.Money;
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * CardImporter streams a CSV or TSV file of cards into an {@link InventorySystem}.
+ * <p>
+ * Each row holds a name, rarity, variation and base value and stands for one copy. A
+ * first row whose name field is "name" is taken as a header. The delimiter is a tab if
+ * the first line has one, otherwise a comma; CSV fields may be double-quoted, with ""
+ * for a quote inside, but may not span lines. Fields are checked as the Controller
+ * checks typed input: a common or uncommon card may leave the variation blank, and
+ * only rare and legendary cards may have a variation other than normal.
+ * <p>
+ * The calling thread reads lines and cuts them into batches, which a pool of parser
+ * threads turns into cards. Batches are added in file order, each with one
+ * {@link InventorySystem#addCardsToCollection} call, after the rows that conflict with
+ * the collection or an earlier row are taken out and reported. Only a few batches are
+ * in flight at once, so memory stays bounded however long the file is.
+ */
+final class CardImporter {
+    private static final int BATCH_ROWS = 4096;        // rows parsed and added together
+    private static final int BATCH_CHARS = 1 << 20;    // ... or fewer, when lines are long
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final InventorySystem SYSTEM;
+    private final int THREADS;
+    private final ArrayList<ImportReport.RowError> ERRORS; // first rejected rows, in line order
+    private long rows;     // data rows read
+    private long added;    // rows added
+    private long rejected; // rows rejected
+
+    /**
+     * A run of consecutive lines, and the result of parsing them.
+     */
+    private static final class Batch {
+        private final long FIRST_LINE;         // line number of LINES[0]
+        private final String[] LINES;
+        private final Card[] CARDS;            // parsed card, or null if blank or rejected
+        private final String[] ERRORS;         // reason a line was rejected, or null
+
+        private Batch(long firstLine, String[] lines) {
+            this.FIRST_LINE = firstLine;
+            this.LINES = lines;
+            this.CARDS = new Card[lines.length];
+            this.ERRORS = new String[lines.length];
+        }
+    }
+
+    /**
+     * Constructs a CardImporter.
+     * @param system the system to add cards to
+     * @param threads number of parser threads (at least 1)
+     */
+    CardImporter(InventorySystem system, int threads) {
+        this.SYSTEM = system;
+        this.THREADS = Math.max(1, threads);
+        this.ERRORS = new ArrayList<>();
+    }
+
+    /**
+     * Import every row of a file.
+     * @param path CSV or TSV file
+     * @return rows read, added and rejected
+     * @throws IOException if the file cannot be read or the import is interrupted;
+     *                     batches added before that stay added
+     */
+    ImportReport importFile(Path path) throws IOException {
+        long started = System.nanoTime();
+        ExecutorService parsers = Executors.newFixedThreadPool(THREADS, task -> {
+            Thread thread = new Thread(task, "card-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<Batch>> inFlight = new ArrayDeque<>();
+        // malformed bytes become replacement characters instead of ending the run
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), 1 << 16)) {
+            ArrayList<String> lines = new ArrayList<>(BATCH_ROWS);
+            long lineNumber = 0;
+            long firstLine = 1;
+            int chars = 0;
+            char delimiter = ',';
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    if (!line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) line = line.substring(1);
+                    if (line.indexOf('\t') >= 0) delimiter = '\t';
+                    if (isHeader(line, delimiter)) {
+                        firstLine = 2;
+                        continue;
+                    }
+                }
+                lines.add(line);
+                chars += line.length();
+                if (lines.size() >= BATCH_ROWS || chars >= BATCH_CHARS) {
+                    submit(parsers, inFlight, new Batch(firstLine, lines.toArray(new String[0])), delimiter);
+                    lines.clear();
+                    chars = 0;
+                    firstLine = lineNumber + 1;
+                }
+            }
+            if (!lines.isEmpty()) submit(parsers, inFlight, new Batch(firstLine, lines.toArray(new String[0])), delimiter);
+            while (!inFlight.isEmpty()) apply(await(inFlight.poll()));
+        } finally {
+            parsers.shutdownNow();
+        }
+        return new ImportReport(rows, added, rejected, ERRORS, System.nanoTime() - started);
+    }
+
+    /**
+     * Hand a batch to the parsers, first adding the oldest batch if enough are in flight.
+     */
+    private void submit(ExecutorService parsers, ArrayDeque<Future<Batch>> inFlight, Batch batch, char delimiter)
+            throws IOException {
+        if (inFlight.size() >= 2 * THREADS) apply(await(inFlight.poll()));
+        inFlight.add(parsers.submit(() -> parse(batch, delimiter)));
+    }
+
+    /**
+     * Wait for a batch to be parsed.
+     */
+    private static Batch await(Future<Batch> parsed) throws IOException {
+        try {
+            return parsed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("import interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Parser task: turn every line of a batch into a card or a reason it was rejected.
+     */
+    private static Batch parse(Batch batch, char delimiter) {
+        for (int i = 0; i < batch.LINES.length; i++) {
+            if (batch.LINES[i].isBlank()) continue;
+            try {
+                batch.CARDS[i] = parseRow(batch.LINES[i], delimiter);
+            } catch (RuntimeException e) { // one bad row must not end the run
+                batch.ERRORS[i] = e.getMessage() != null ? e.getMessage() : e.toString();
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Add a parsed batch, leaving out and reporting rows that were rejected or conflict
+     * with the collection or an earlier row.
+     */
+    private void apply(Batch batch) {
+        HashMap<String, Card> first = new HashMap<>(); // key -> card already present or earlier in the batch
+        ArrayList<Card> accepted = new ArrayList<>(batch.LINES.length);
+        for (int i = 0; i < batch.LINES.length; i++) {
+            Card c = batch.CARDS[i];
+            if (c == null && batch.ERRORS[i] == null) continue; // blank line
+            rows++;
+            if (c == null) {
+                reject(batch.FIRST_LINE + i, batch.ERRORS[i]);
+                continue;
+            }
+            Card existing = first.get(c.getKey());
+            if (existing == null) {
+                existing = SYSTEM.findCardByNameInCollection(c.getName());
+                first.put(c.getKey(), existing == null ? c : existing);
+            }
+            if (existing != null && !existing.equals(c)) {
+                reject(batch.FIRST_LINE + i, "card with same name but different attributes exists.");
+            } else {
+                accepted.add(c);
+            }
+        }
+        if (!accepted.isEmpty()) {
+            SYSTEM.addCardsToCollection(accepted); // conflicts are already out, so this cannot fail on them
+            added += accepted.size();
+        }
+    }
+
+    /**
+     * Count a rejected row, keeping its reason if there is room.
+     */
+    private void reject(long line, String message) {
+        rejected++;
+        if (ERRORS.size() < ImportReport.MAX_ERRORS) ERRORS.add(new ImportReport.RowError(line, message));
+    }
+
+    /**
+     * @return true if the line's first field is "name", as in a header row
+     */
+    private static boolean isHeader(String line, char delimiter) {
+        try {
+            ArrayList<String> fields = split(line, delimiter);
+            return fields.get(0).trim().equalsIgnoreCase("name");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parse one row into a card.
+     * @param line the row
+     * @param delimiter field delimiter
+     * @return a card with one copy
+     * @throws IllegalArgumentException describing the first problem with the row
+     */
+    static Card parseRow(String line, char delimiter) {
+        ArrayList<String> fields = split(line, delimiter);
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("expected 4 fields (name, rarity, variation, value) but found "
+                    + fields.size());
+        }
+        Rarity rarity = parseRarity(fields.get(1));
+        Variation variation = parseVariation(rarity, fields.get(2));
+        BigDecimal value = parseValue(variation, fields.get(3));
+        return new Card(fields.get(0).trim(), rarity, variation, value);
+    }
+
+    /**
+     * Split a row into fields, honouring double quotes when the delimiter is a comma.
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    private static ArrayList<String> split(String line, char delimiter) {
+        ArrayList<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quotes = delimiter == ',';
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"'); // escaped quote
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (quotes && ch == '"' && field.toString().isBlank()) {
+                field.setLength(0); // opening quote; spaces before it are dropped
+                quoted = true;
+            } else {
+                field.append(ch);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("quoted field is not closed");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Parse a rarity as the Controller's prompt does.
+     * @param input rarity name, in any case
+     * @return the rarity
+     * @throws IllegalArgumentException if it names no rarity
+     */
+    static Rarity parseRarity(String input) {
+        try {
+            return Rarity.valueOf(input.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid rarity: " + input);
+        }
+    }
+
+    /**
+     * Parse a variation as the Controller's prompt does. Only rare and legendary cards
+     * have variations, so for other rarities a blank field means normal.
+     * @param rarity the card's rarity
+     * @param input variation name, in any case
+     * @return the variation
+     * @throws IllegalArgumentException if it names no variation, or a variation the rarity cannot have
+     */
+    static Variation parseVariation(Rarity rarity, String input) {
+        boolean varies = rarity == Rarity.RARE || rarity == Rarity.LEGENDARY;
+        if (!varies && input.isBlank()) return Variation.NORMAL;
+        Variation variation;
+        try {
+            variation = Variation.valueOf(input.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid variation: " + input);
+        }
+        if (!varies && variation != Variation.NORMAL) {
+            throw new IllegalArgumentException("only rare and legendary cards have variations");
+        }
+        return variation;
+    }
+
+    /**
+     * Parse a base value as the Controller's prompt does.
+     * @param variation the card's variation, whose multiplier the value must survive
+     * @param input decimal value
+     * @return the value
+     * @throws IllegalArgumentException if it is not a number, or too large for a card
+     */
+    static BigDecimal parseValue(Variation variation, String input) {
+        BigDecimal value;
+        try {
+            value = new BigDecimal(input.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number: " + input);
+        }
+        Money.checkBaseValue(value, variation);
+        return value;
+    }
+}
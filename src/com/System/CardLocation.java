@@ -0,0 +1,60 @@
+package com.System;
+
+/**
+ * CardLocation describes a binder or deck holding copies of a card.
+ * <p>
+ * Returned by {@link InventorySystem#locateCard(String)}; the main collection is not
+ * listed, since its count is available from the card itself.
+ */
+public class CardLocation {
+    /**
+     * Kind of container holding the card.
+     */
+    public enum Kind { BINDER, DECK }
+
+    private final Kind KIND;
+    private final String CONTAINER_NAME;
+    private final int COPIES;
+
+    /**
+     * Constructs a CardLocation.
+     * @param kind whether the container is a binder or a deck
+     * @param containerName name of the binder or deck
+     * @param copies number of copies held there
+     */
+    public CardLocation(Kind kind, String containerName, int copies) {
+        this.KIND = kind;
+        this.CONTAINER_NAME = containerName;
+        this.COPIES = copies;
+    }
+
+    /**
+     * @return whether the container is a binder or a deck
+     */
+    public Kind getKind() {
+        return KIND;
+    }
+
+    /**
+     * @return the name of the binder or deck
+     */
+    public String getContainerName() {
+        return CONTAINER_NAME;
+    }
+
+    /**
+     * @return the number of copies held there
+     */
+    public int getCopies() {
+        return COPIES;
+    }
+
+    /**
+     * @return a string such as: binder "trades" (2 copies)
+     */
+    @Override
+    public String toString() {
+        return KIND.name().toLowerCase() + " \"" + CONTAINER_NAME + "\" (" + COPIES
+                + (COPIES == 1 ? " copy)" : " copies)");
+    }
+}
@@ -4,7 +4,10 @@ import com.TradingCard.*;
 import com.TradingCard.Enums.Rarity;
 import com.TradingCard.Enums.Variation;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
 
 /**
  * Controller for the Trading Card Inventory System (TCIS).
@@ -13,6 +16,9 @@ import java.math.BigDecimal;
  * Handles user input, invokes model operations, and delegates display to the View.
  */
 public class Controller {
+    private static final int SEARCH_LIMIT = 20; // maximum matches shown per search
+    private static final int PAGE_SIZE = 20;    // cards shown per collection page
+
     private final View VIEW;
     private final InventorySystem INVENTORY_SYSTEM;
 
@@ -34,9 +40,9 @@ public class Controller {
         // loop until user confirms exit
         while (!exitFlag) {
             // check model state to adapt menu
-            boolean hasCards   = !INVENTORY_SYSTEM.getCardCollection().getSortedCopy().isEmpty();
-            boolean hasBinders = !INVENTORY_SYSTEM.getBinderNames().isEmpty();
-            boolean hasDecks   = !INVENTORY_SYSTEM.getDeckNames().isEmpty();
+            boolean hasCards   = !INVENTORY_SYSTEM.getCardCollection().isEmpty();
+            boolean hasBinders = INVENTORY_SYSTEM.getBinderCount() > 0;
+            boolean hasDecks   = INVENTORY_SYSTEM.getDeckCount() > 0;
 
             VIEW.showMainMenu(hasCards, hasBinders, hasDecks); // display options
             String choice = prompt();                            // get user input
@@ -44,11 +50,12 @@ public class Controller {
                 // route based on input
                 switch (choice) {
                     case "1" -> handleAddCard();                     // add new card
-                    case "2" -> { if (!hasBinders) handleCreateBinder(); else handleManageBinderMenu(); }
-                    case "3" -> { if (!hasDecks) handleCreateDeck(); else handleManageDeckMenu(); }
-                    case "4" -> { if (hasCards) handleViewCollection(); else exitFlag = true; }
-                    case "5" -> { if (hasCards) handleAdjustCount(); else invalid(); }
-                    case "6" -> { if (hasCards) exitFlag = true; else invalid(); }
+                    case "2" -> handleImportCards();                 // bulk add from a file
+                    case "3" -> { if (!hasBinders) handleCreateBinder(); else handleManageBinderMenu(); }
+                    case "4" -> { if (!hasDecks) handleCreateDeck(); else handleManageDeckMenu(); }
+                    case "5" -> { if (hasCards) handleViewCollection(); else exitFlag = true; }
+                    case "6" -> { if (hasCards) handleAdjustCount(); else invalid(); }
+                    case "7" -> { if (hasCards) exitFlag = true; else invalid(); }
                     default  -> invalid();                              // invalid choice
                 }
             } catch (Exception e) {
@@ -95,10 +102,10 @@ public class Controller {
                 return null;
             }
             try {
-                rarity = Rarity.valueOf(input.trim().toUpperCase());
+                rarity = CardImporter.parseRarity(input);
                 exitFlag = true;
             } catch (IllegalArgumentException e) {
-                VIEW.showError("invalid rarity: " + input);
+                VIEW.showError(e.getMessage());
             }
         }
         // prompt for variation or cancel
@@ -114,10 +121,10 @@ public class Controller {
                     return null;
                 }
                 try {
-                    var = Variation.valueOf(input.trim().toUpperCase());
+                    var = CardImporter.parseVariation(rarity, input);
                     exitFlag = true;
                 } catch (IllegalArgumentException e) {
-                    VIEW.showError("invalid variation: " + input);
+                    VIEW.showError(e.getMessage());
                 }
             }
         }
@@ -130,10 +137,10 @@ public class Controller {
                 return null;
             }
             try {
-                val = new BigDecimal(valueStr.trim());
+                val = CardImporter.parseValue(var, valueStr);
                 exitFlag = true;
-            } catch (NumberFormatException e) {
-                VIEW.showError("invalid number: " + valueStr);
+            } catch (IllegalArgumentException e) {
+                VIEW.showError(e.getMessage());
             }
         }
         // create and add card
@@ -143,12 +150,26 @@ public class Controller {
         return c.getName();
     }
 
+    /**
+     * Import cards from a CSV or TSV file, then show how many rows were added and why others were not.
+     * @throws IOException if the file cannot be read
+     */
+    private void handleImportCards() throws IOException {
+        String input = promptInput("input path of a CSV or TSV file (or 'cancel' to abort): ");
+        if (input == null || input.trim().equalsIgnoreCase("cancel")) {
+            return;
+        }
+        VIEW.showMessage("importing...");
+        VIEW.showImportReport(INVENTORY_SYSTEM.importCards(Path.of(input.trim())));
+    }
+
     /**
      * Prompt and create a new Binder in the model.
      */
     private void handleCreateBinder() {
         String name = promptInput("binder name: ");
-        INVENTORY_SYSTEM.createBinder(name);
+        int capacity = promptCapacity(Binder.DEFAULT_CAPACITY);
+        INVENTORY_SYSTEM.createBinder(name, capacity);
         VIEW.showMessage("binder created: " + name);
     }
 
@@ -157,7 +178,8 @@ public class Controller {
      */
     private void handleCreateDeck() {
         String name = promptInput("deck name: ");
-        INVENTORY_SYSTEM.createDeck(name);
+        int capacity = promptCapacity(Deck.DEFAULT_CAPACITY);
+        INVENTORY_SYSTEM.createDeck(name, capacity);
         VIEW.showMessage("deck created: " + name);
     }
 
@@ -180,15 +202,18 @@ public class Controller {
     }
 
     /**
-     * Display collection list and sub-menu for specific card details.
+     * Display the collection one page at a time, with a sub-menu for card details and paging.
      */
     private void handleViewCollection() {
         String choice;
         String cardName;
         Card c;
         boolean back = false;
+        CardPage.Order order = CardPage.Order.NAME;
+        CardPage.Cursor start = null; // where the shown page begins, null for the first page
         while(!back) {
-            VIEW.showCollection(INVENTORY_SYSTEM.getCardCollection());
+            CardPage page = INVENTORY_SYSTEM.pageCollectionAfter(order, start, PAGE_SIZE);
+            VIEW.showCollectionPage(page);
             VIEW.showCollectionOptions();
             choice = prompt();
             switch (choice) {
@@ -200,12 +225,168 @@ public class Controller {
                     }
                     else VIEW.showCardDetails(c);
                 }
-                case "2" -> back = true; // return to main menu
+                case "2" -> handleSearchCards();
+                case "3" -> handleFilterCards();
+                case "4" -> handleValueRange();
+                case "5" -> handleTopValue();
+                case "6" -> handleLocateCard();
+                case "7" -> {
+                    VIEW.showStatistics(INVENTORY_SYSTEM.getStatistics());
+                    JournalMetrics journal = INVENTORY_SYSTEM.getJournalMetrics();
+                    if (journal != null) VIEW.showJournalMetrics(journal);
+                }
+                case "8" -> {
+                    if (page.hasNext()) start = page.getNextCursor();
+                    else VIEW.showError("already on the last page");
+                }
+                case "9" -> {
+                    if (page.hasPrevious()) {
+                        start = INVENTORY_SYSTEM.pageCollectionBefore(order, page.getPreviousCursor(), PAGE_SIZE).getStartCursor();
+                    } else VIEW.showError("already on the first page");
+                }
+                case "10" -> start = promptJump(order, start);
+                case "11" -> {
+                    order = promptPageOrder();
+                    start = null; // a new order starts from its first page
+                }
+                case "12" -> {
+                    int purged = INVENTORY_SYSTEM.compactCollection().size();
+                    VIEW.showMessage("purged " + purged + (purged == 1 ? " card" : " cards") + " with no copies left");
+                    start = null; // the shown page may have lost cards
+                }
+                case "13" -> back = true; // return to main menu
                 default -> invalid();
             }
         }
     }
 
+    /**
+     * Ask for a name prefix and find where the first matching card by name sits in the
+     * page order. Only that card is looked up, so the jump costs no more than a page.
+     * @param order order being paged
+     * @param current cursor of the page shown now, kept if nothing matches
+     * @return cursor starting at the matching card, or current if none
+     */
+    private CardPage.Cursor promptJump(CardPage.Order order, CardPage.Cursor current) {
+        String prefix = promptInput("jump to name starting with: ");
+        if (prefix == null || prefix.trim().isEmpty()) {
+            invalid();
+            return current;
+        }
+        CardPage.Cursor first = INVENTORY_SYSTEM.seekCollection(order, prefix);
+        if (first == null) {
+            VIEW.showError("no card starts with \"" + prefix.trim() + "\"");
+            return current;
+        }
+        return first;
+    }
+
+    /**
+     * Ask for the order to page the collection in.
+     * @return the chosen order
+     * @throws IllegalArgumentException if the input names no order
+     */
+    private CardPage.Order promptPageOrder() {
+        String input = promptInput("page order (name/value/rarity): ").trim();
+        try {
+            return CardPage.Order.valueOf(input.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid page order: " + input);
+        }
+    }
+
+    /**
+     * Search card names by prefix, falling back to typo-tolerant matching when nothing starts with the query.
+     */
+    private void handleSearchCards() {
+        String query = promptInput("search for: ");
+        if (query == null || query.trim().isEmpty()) {
+            invalid();
+            return;
+        }
+        ArrayList<Card> results = INVENTORY_SYSTEM.searchCardsByPrefix(query, SEARCH_LIMIT);
+        if (results.isEmpty()) {
+            int maxEdits = query.trim().length() <= 4 ? 1 : 2; // short queries tolerate fewer typos
+            results = INVENTORY_SYSTEM.searchCardsBySimilarName(query, maxEdits, SEARCH_LIMIT);
+        }
+        VIEW.showMatches("search: " + query.trim(), results);
+    }
+
+    /**
+     * Filter the collection by rarity and variation, where 'any' leaves an attribute unconstrained.
+     */
+    private void handleFilterCards() {
+        Rarity rarity = null;
+        Variation var = null;
+        VIEW.showRarityOptions();
+        String input = promptInput("input rarity (or 'any'): ").trim();
+        if (!input.equalsIgnoreCase("any")) {
+            try {
+                rarity = Rarity.valueOf(input.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                VIEW.showError("invalid rarity: " + input);
+                return;
+            }
+        }
+        VIEW.showVariationOptions();
+        input = promptInput("input variation (or 'any'): ").trim();
+        if (!input.equalsIgnoreCase("any")) {
+            try {
+                var = Variation.valueOf(input.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                VIEW.showError("invalid variation: " + input);
+                return;
+            }
+        }
+        ArrayList<Card> results = INVENTORY_SYSTEM.filterCollection(rarity, var);
+        VIEW.showMatches("filter: " + (rarity == null ? "any" : rarity) + " / " + (var == null ? "any" : var), results);
+    }
+
+    /**
+     * List collection cards on hand whose value lies within a user-entered range.
+     */
+    private void handleValueRange() {
+        String minStr = promptInput("minimum value: ");
+        String maxStr = promptInput("maximum value: ");
+        BigDecimal min, max;
+        try {
+            min = new BigDecimal(minStr.trim());
+            max = new BigDecimal(maxStr.trim());
+        } catch (NumberFormatException e) {
+            VIEW.showError("invalid number");
+            return;
+        }
+        ArrayList<Card> results = INVENTORY_SYSTEM.findCardsByValueRange(min, max);
+        VIEW.showMatches("value: $" + min + " to $" + max, results);
+    }
+
+    /**
+     * List the most valuable collection cards on hand.
+     */
+    private void handleTopValue() {
+        String kStr = promptInput("how many cards? : ").trim();
+        if (!kStr.matches("\\d+")) {
+            VIEW.showError("invalid number: " + kStr);
+            return;
+        }
+        int k = Integer.parseInt(kStr);
+        ArrayList<Card> results = INVENTORY_SYSTEM.findMostValuableCards(k);
+        VIEW.showMatches("top " + k + " by value", results);
+    }
+
+    /**
+     * Show every binder and deck holding copies of a card.
+     */
+    private void handleLocateCard() {
+        String name = promptInput("card name: ");
+        Card c = INVENTORY_SYSTEM.findCardByNameInCollection(name);
+        if (c == null) {
+            VIEW.showError("card \"" + name.trim() + "\" not found in collection!");
+            return;
+        }
+        VIEW.showLocations(c, INVENTORY_SYSTEM.locateCard(name));
+    }
+
     /**
      * Sub-menu for binder creation or viewing existing binders.
      */
@@ -217,9 +398,11 @@ public class Controller {
             choice = prompt();
             switch (choice) {
                 case "1" -> handleCreateBinder();
-                case "2" ->  { if(!INVENTORY_SYSTEM.getBinderNames().isEmpty()) handleViewBinder();
+                case "2" ->  { if(INVENTORY_SYSTEM.getBinderCount() > 0) handleViewBinder();
                                else VIEW.showError("there are no binders found"); } // In case there are no binders left
-                case "3" -> back = true;
+                case "3" -> { if(INVENTORY_SYSTEM.getBinderCount() > 0) handleDeleteBinders();
+                              else VIEW.showError("there are no binders found"); }
+                case "4" -> back = true;
                 default -> invalid();
             }
         }
@@ -236,24 +419,67 @@ public class Controller {
             choice = prompt();
             switch (choice) {
                 case "1" -> handleCreateDeck();
-                case "2" -> { if(!INVENTORY_SYSTEM.getDeckNames().isEmpty()) handleViewDeck();
+                case "2" -> { if(INVENTORY_SYSTEM.getDeckCount() > 0) handleViewDeck();
                               else VIEW.showError("there are no decks found"); } // In case there are no decks left
-                case "3" -> back = true;
+                case "3" -> { if(INVENTORY_SYSTEM.getDeckCount() > 0) handleDeleteDecks();
+                              else VIEW.showError("there are no decks found"); }
+                case "4" -> back = true;
                 default -> invalid();
             }
         }
     }
 
+    /**
+     * Delete several binders named in one comma-separated line, returning their cards together.
+     */
+    private void handleDeleteBinders() {
+        VIEW.showBinderNames(INVENTORY_SYSTEM.getBinderNameView());
+        ArrayList<String> names = promptNameList("binders to delete (comma-separated): ");
+        if (names.isEmpty()) {
+            invalid();
+            return;
+        }
+        INVENTORY_SYSTEM.deleteBinders(names);
+        VIEW.showMessage("deleted " + names.size() + (names.size() == 1 ? " binder" : " binders"));
+    }
+
+    /**
+     * Delete several decks named in one comma-separated line, returning their cards together.
+     */
+    private void handleDeleteDecks() {
+        VIEW.showDeckNames(INVENTORY_SYSTEM.getDeckNameView());
+        ArrayList<String> names = promptNameList("decks to delete (comma-separated): ");
+        if (names.isEmpty()) {
+            invalid();
+            return;
+        }
+        INVENTORY_SYSTEM.deleteDecks(names);
+        VIEW.showMessage("deleted " + names.size() + (names.size() == 1 ? " deck" : " decks"));
+    }
+
+    /**
+     * Prompt for a comma-separated list of names, dropping blank entries.
+     * @param msg prompt to display
+     * @return the trimmed names, in the order entered
+     */
+    private ArrayList<String> promptNameList(String msg) {
+        ArrayList<String> names = new ArrayList<>();
+        for (String part : promptInput(msg).split(",")) {
+            if (!part.trim().isEmpty()) names.add(part.trim());
+        }
+        return names;
+    }
+
     /**
      * Display and operate on a specific Binder's contents (add/remove/trade).
      */
     private void handleViewBinder() {
-        VIEW.showBinderNames(INVENTORY_SYSTEM.getBinderNames());
+        VIEW.showBinderNames(INVENTORY_SYSTEM.getBinderNameView());
         String binderName = promptInput("select binder: ");
         Binder curBinder = INVENTORY_SYSTEM.findBinderByName(binderName);
         boolean back = false;
         while (!back) {
-            boolean hasCard = !curBinder.getSortedCopy().isEmpty();
+            boolean hasCard = !curBinder.isEmpty();
             VIEW.showBinderMenu(binderName, hasCard);
             String opt = prompt();
             if(hasCard) {
@@ -287,12 +513,12 @@ public class Controller {
      * Display and operate on a specific Deck's contents (add/remove/view).
      */
     private void handleViewDeck() {
-        VIEW.showDeckNames(INVENTORY_SYSTEM.getDeckNames());
+        VIEW.showDeckNames(INVENTORY_SYSTEM.getDeckNameView());
         String deckName = promptInput("select deck: ");
         boolean back = false;
         Deck curDeck = INVENTORY_SYSTEM.findDeckByName(deckName);
         while (!back) {
-            boolean hasCard = !curDeck.getCopyOfCards().isEmpty();
+            boolean hasCard = !curDeck.isEmpty();
             VIEW.showDeckMenu(deckName, hasCard);
             String opt = prompt();
             if (hasCard) {
@@ -335,6 +561,23 @@ public class Controller {
         return VIEW.readLine(msg);
     }
 
+    /**
+     * Prompt for a container capacity, where a blank answer keeps the default.
+     * @param defaultCapacity capacity used when the user enters nothing
+     * @return the chosen capacity
+     * @throws IllegalArgumentException if the input is not a whole number
+     */
+    private int promptCapacity(int defaultCapacity) {
+        String input = promptInput("capacity (blank for " + defaultCapacity + "): ").trim();
+        if (input.isEmpty()) {
+            return defaultCapacity;
+        }
+        if (!input.matches("\\d{1,9}")) {
+            throw new IllegalArgumentException("invalid capacity: " + input);
+        }
+        return Integer.parseInt(input);
+    }
+
     /**
      * Display an error message for invalid menu choices.
      */
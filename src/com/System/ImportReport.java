@@ -0,0 +1,117 @@
+package com.System;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ImportReport is the outcome of one {@link InventorySystem#importCards} run.
+ * <p>
+ * Every rejected row is counted, but only the first {@value #MAX_ERRORS} are kept with
+ * their reasons, so a badly broken feed cannot exhaust memory.
+ */
+public class ImportReport {
+    public static final int MAX_ERRORS = 1000; // rejected rows kept with their reasons
+
+    private final long ROWS;
+    private final long ADDED;
+    private final long REJECTED;
+    private final List<RowError> ERRORS;
+    private final long ELAPSED_NANOS;
+
+    /**
+     * A rejected row: its line number in the file and why it was rejected.
+     */
+    public static final class RowError {
+        private final long LINE;
+        private final String MESSAGE;
+
+        /**
+         * Constructs a RowError.
+         * @param line line number, counting from 1
+         * @param message reason the row was rejected
+         */
+        RowError(long line, String message) {
+            this.LINE = line;
+            this.MESSAGE = message;
+        }
+
+        /**
+         * @return line number of the row, counting from 1
+         */
+        public long getLine() {
+            return LINE;
+        }
+
+        /**
+         * @return reason the row was rejected
+         */
+        public String getMessage() {
+            return MESSAGE;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + LINE + ": " + MESSAGE;
+        }
+    }
+
+    /**
+     * Constructs an ImportReport.
+     * @param rows data rows read, excluding a header and blank lines
+     * @param added rows added to the collection
+     * @param rejected rows rejected
+     * @param errors the first rejected rows, in line order
+     * @param elapsedNanos duration of the import
+     */
+    ImportReport(long rows, long added, long rejected, List<RowError> errors, long elapsedNanos) {
+        this.ROWS = rows;
+        this.ADDED = added;
+        this.REJECTED = rejected;
+        this.ERRORS = Collections.unmodifiableList(errors);
+        this.ELAPSED_NANOS = elapsedNanos;
+    }
+
+    /**
+     * @return data rows read, excluding a header and blank lines
+     */
+    public long getRows() {
+        return ROWS;
+    }
+
+    /**
+     * @return rows added to the collection, one copy each
+     */
+    public long getAdded() {
+        return ADDED;
+    }
+
+    /**
+     * @return rows rejected, including those beyond {@link #getErrors()}
+     */
+    public long getRejected() {
+        return REJECTED;
+    }
+
+    /**
+     * @return the first {@value #MAX_ERRORS} rejected rows, in line order
+     */
+    public List<RowError> getErrors() {
+        return ERRORS;
+    }
+
+    /**
+     * @return duration of the import in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return ELAPSED_NANOS;
+    }
+
+    /**
+     * @return a one-line summary of the figures
+     */
+    @Override
+    public String toString() {
+        return String.format("%d rows: %d added, %d rejected (%.1f s)",
+                ROWS, ADDED, REJECTED, ELAPSED_NANOS / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,55 @@
+package com.System;
+
+import com.TradingCard.CardStatistics;
+
+/**
+ * InventoryStatistics is a snapshot of copy and value totals across the inventory.
+ * <p>
+ * Returned by {@link InventorySystem#getStatistics()}. Copies moved into a binder or
+ * deck leave the collection, so the three parts never count the same copy twice.
+ */
+public class InventoryStatistics {
+    private final CardStatistics COLLECTION;
+    private final CardStatistics BINDERS;
+    private final CardStatistics DECKS;
+
+    /**
+     * Constructs an InventoryStatistics.
+     * @param collection totals of the main collection
+     * @param binders combined totals of every binder
+     * @param decks combined totals of every deck
+     */
+    public InventoryStatistics(CardStatistics collection, CardStatistics binders, CardStatistics decks) {
+        this.COLLECTION = collection;
+        this.BINDERS = binders;
+        this.DECKS = decks;
+    }
+
+    /**
+     * @return totals of the main collection
+     */
+    public CardStatistics getCollection() {
+        return COLLECTION;
+    }
+
+    /**
+     * @return combined totals of every binder
+     */
+    public CardStatistics getBinders() {
+        return BINDERS;
+    }
+
+    /**
+     * @return combined totals of every deck
+     */
+    public CardStatistics getDecks() {
+        return DECKS;
+    }
+
+    /**
+     * @return totals of the collection, binders and decks together
+     */
+    public CardStatistics getOverall() {
+        return COLLECTION.plus(BINDERS).plus(DECKS);
+    }
+}
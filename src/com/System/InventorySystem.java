@@ -1,27 +1,252 @@
 package com.System;
 
 import com.TradingCard.*;
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * InventorySystem serves as the core model for the Trading Card Inventory System (TCIS).
  * <p>
  * It manages a collection of cards, multiple decks, and multiple binders. All business logic
  * for adding, removing, and trading cards flows through this class.
+ * <p>
+ * With a journal open, every mutation is encoded before it is applied and, once it
+ * succeeds, appended to the journal before the call returns; opening the journal
+ * replays earlier mutations, so state survives restarts.
+ * The journal's {@link JournalPolicy} decides how soon appended mutations reach the disk.
+ * A snapshot saves the whole inventory in one compact file instead.
  */
 public class InventorySystem {
+    private static final int AUTO_COMPACT_MIN = 1024; // zero-count entries tolerated before automatic compaction
+
     private final CardCollection CARD_COLLECTION;
-    private final ArrayList<Deck> DECKS;
-    private final ArrayList<Binder> BINDERS;
+    private final LinkedHashMap<String, Deck> DECKS;     // normalized name -> deck, in creation order
+    private final LinkedHashMap<String, Binder> BINDERS; // normalized name -> binder, in creation order
+    // reverse location index: card key -> containers holding it (binders with copy counts)
+    private final HashMap<String, LinkedHashMap<Binder, Integer>> BINDER_LOCATIONS;
+    private final HashMap<String, LinkedHashSet<Deck>> DECK_LOCATIONS;
+    private final RunningStatistics BINDER_STATS;        // totals over every binder, kept with BINDER_LOCATIONS
+    private final RunningStatistics DECK_STATS;          // totals over every deck, kept with DECK_LOCATIONS
+    private boolean autoCompact;                         // compact once zero-count entries dominate
+    private boolean replaying;                           // applying journal records, which hold every compaction
+    private Journal journal;                             // records each successful mutation, or null
+    private long journalMark;                            // journal offset a loaded snapshot is current to
+    private CompletableFuture<Void> lastSave;            // the latest snapshot save; saves run in order
 
     /**
      * Constructs a new InventorySystem with empty collection, decks, and binders.
      */
     public InventorySystem() {
-        this.CARD_COLLECTION = new CardCollection(); // primary card collection
-        this.DECKS = new ArrayList<>();             // list of decks
-        this.BINDERS = new ArrayList<>();           // list of binders
+        this(new IndexedCardCollection());
+    }
+
+    /**
+     * Constructs a new InventorySystem over the given collection, with empty decks and binders.
+     * @param collection the primary card collection, which selects the storage mode
+     */
+    public InventorySystem(CardCollection collection) {
+        this.CARD_COLLECTION = collection;         // primary card collection
+        this.DECKS = new LinkedHashMap<>();         // registry of decks
+        this.BINDERS = new LinkedHashMap<>();       // registry of binders
+        this.BINDER_LOCATIONS = new HashMap<>();
+        this.DECK_LOCATIONS = new HashMap<>();
+        this.BINDER_STATS = new RunningStatistics();
+        this.DECK_STATS = new RunningStatistics();
+        this.autoCompact = true;
+        this.lastSave = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Open a journal that makes every mutation durable before it returns.
+     * @param path location of the journal file, created if absent
+     * @throws IOException if the file cannot be used or holds a mutation that cannot be replayed
+     * @throws IllegalStateException if a journal is already open
+     * @see #openJournal(Path, JournalPolicy)
+     */
+    public void openJournal(Path path) throws IOException {
+        openJournal(path, JournalPolicy.perOperation());
+    }
+
+    /**
+     * Open a journal file, replay the mutations it holds, and record every later mutation to it.
+     * A damaged or partly written record at the end of the file, left by a crash, is discarded.
+     * @param path location of the journal file, created if absent
+     * @param policy when recorded mutations are forced to disk
+     * @throws IOException if the file cannot be used or holds a mutation that cannot be replayed
+     * @throws IllegalStateException if a journal is already open
+     */
+    public void openJournal(Path path, JournalPolicy policy) throws IOException {
+        if (this.journal != null) {
+            throw new IllegalStateException("journal already open: " + this.journal.getPath());
+        }
+        // replayed while unset, so nothing is recorded twice
+        this.replaying = true;
+        try {
+            this.journal = Journal.open(path, this, policy, this.journalMark);
+        } finally {
+            this.replaying = false;
+        }
+    }
+
+    /**
+     * Force every mutation recorded so far to disk, whatever the journal's policy.
+     * Does nothing if no journal is open.
+     * @throws UncheckedIOException if the journal cannot be written
+     */
+    public void flushJournal() {
+        if (this.journal != null) this.journal.flush();
+    }
+
+    /**
+     * @return throughput and commit latency of the open journal, or null if none is open
+     */
+    public JournalMetrics getJournalMetrics() {
+        return this.journal == null ? null : this.journal.getMetrics();
+    }
+
+    /**
+     * Close the open journal, if any, after forcing outstanding mutations to disk.
+     * Later mutations are no longer recorded.
+     * @throws IOException if the journal cannot be written or closed
+     */
+    public void closeJournal() throws IOException {
+        if (this.journal != null) {
+            Journal closing = this.journal;
+            this.journal = null;
+            closing.close();
+        }
+    }
+
+    /**
+     * Save the whole inventory to a snapshot file. The state is copied when this is called,
+     * which costs one pass over the collection; encoding and writing then happen in the
+     * background, so mutations made meanwhile are not in the snapshot and do not wait for it.
+     * With a journal open, the snapshot records how far into the journal it is current, so
+     * restoring it replays only later records, and once it is written the journal drops the
+     * records before that point; the journal then goes only with this snapshot or a later one.
+     * Saves are written one after another in the order they were made, so the journal is
+     * never cut past a snapshot that is still to be written.
+     * @param path snapshot location; the snapshot goes to a new file beside it, and the
+     *             location is switched to that file once it is complete
+     * @return completes when the file is written and the journal trimmed, or exceptionally
+     *         with an {@link UncheckedIOException} if either could not be; the journal
+     *         keeps every record when the trim fails
+     * @throws UncheckedIOException if the open journal cannot be flushed
+     */
+    public CompletableFuture<Void> saveSnapshot(Path path) {
+        Journal trimmed = this.journal;
+        long mark = 0;
+        if (trimmed != null) {
+            trimmed.flush(); // the records before the mark must outlive the snapshot
+            mark = trimmed.getEndOffset();
+        }
+        long journalMark = mark;
+        Snapshot image = Snapshot.capture(this.CARD_COLLECTION, this.BINDERS.values(), this.DECKS.values(), mark);
+        CompletableFuture<Void> save = this.lastSave.handle((done, error) -> null).thenRunAsync(() -> {
+            try {
+                image.write(path);
+            } catch (IOException e) {
+                throw new CompletionException(new UncheckedIOException("unable to write snapshot " + path, e));
+            }
+            if (trimmed == null) return;
+            try {
+                trimmed.truncateBefore(journalMark);
+            } catch (IOException e) {
+                throw new CompletionException(new UncheckedIOException("snapshot " + path
+                        + " written, but unable to trim journal " + trimmed.getPath(), e));
+            }
+        });
+        this.lastSave = save;
+        return save;
+    }
+
+    /**
+     * Open a snapshot as a new system without reading its cards: the file is mapped into
+     * memory and cards are read from it as they are looked up or changed, so this takes
+     * about the same time however large the inventory is. Files in an older format are
+     * read in full. A journal opened afterwards replays only the records saved after it.
+     * @param path snapshot location written by {@link #saveSnapshot}
+     * @return a system holding the snapshot's inventory
+     * @throws IOException if the file cannot be read, is not a snapshot, or is damaged
+     * @see MappedCardCollection
+     */
+    public static InventorySystem openSnapshot(Path path) throws IOException {
+        Snapshot image = Snapshot.open(path);
+        InventorySystem system;
+        if (image.getMapped() != null) {
+            system = new InventorySystem(image.getMapped());
+        } else {
+            system = new InventorySystem();
+            system.CARD_COLLECTION.restoreCards(image.getCards(), image.getCounts());
+        }
+        system.restoreContainers(image);
+        return system;
+    }
+
+    /**
+     * Load a snapshot into this system, which must be empty. A journal opened afterwards
+     * replays only the records saved after the snapshot was taken.
+     * @param path snapshot location written by {@link #saveSnapshot}
+     * @throws IOException if the file cannot be read, is not a snapshot, or is damaged
+     * @throws IllegalStateException if the system already holds cards, binders or decks, or has a journal open
+     */
+    public void loadSnapshot(Path path) throws IOException {
+        if (!this.CARD_COLLECTION.isEmpty() || !this.BINDERS.isEmpty() || !this.DECKS.isEmpty()) {
+            throw new IllegalStateException("a snapshot can only be loaded into an empty inventory");
+        }
+        if (this.journal != null) {
+            throw new IllegalStateException("close the journal before loading a snapshot");
+        }
+        Snapshot image = Snapshot.read(path); // checked in full before anything changes
+        this.CARD_COLLECTION.restoreCards(image.getCards(), image.getCounts());
+        restoreContainers(image);
+    }
+
+    /**
+     * Recreate a snapshot's binders and decks, whose cards are already in the collection,
+     * and take its journal mark.
+     * @param image snapshot being restored
+     */
+    private void restoreContainers(Snapshot image) {
+        for (Snapshot.Container c : image.getBinders()) {
+            Binder binder = new Binder(c.getName(), c.getCapacity());
+            this.BINDERS.put(registryKey(binder.getName()), binder);
+            for (int i = 0; i < c.size(); i++) {
+                for (int copy = 0; copy < c.getCopies(i); copy++) {
+                    Card card = new Card(c.getCard(i));
+                    binder.addCard(card);
+                    trackBinder(binder, card, 1);
+                }
+            }
+        }
+        for (Snapshot.Container c : image.getDecks()) {
+            Deck deck = new Deck(c.getName(), c.getCapacity());
+            this.DECKS.put(registryKey(deck.getName()), deck);
+            for (int i = 0; i < c.size(); i++) {
+                Card card = new Card(c.getCard(i));
+                deck.addCard(card);
+                trackDeck(deck, card, true);
+            }
+        }
+        this.journalMark = image.getJournalMark();
+    }
+
+    /**
+     * Normalize a binder or deck name into its registry key.
+     * @param name raw binder or deck name
+     * @return trimmed, lowercase key
+     */
+    private static String registryKey(String name) {
+        return name.trim().toLowerCase();
     }
 
     /**
@@ -42,15 +267,154 @@ public class InventorySystem {
     }
 
     /**
-     * Helper to return a list of cards back into the collection.
-     * @param cards list of Card instances to return
+     * Search card names by prefix.
+     * <p>
+     * Binder and deck cards are always drawn from the collection, whose entries persist
+     * at zero count while any binder or deck holds the card, so the collection's name
+     * index covers every container.
+     * @param prefix name prefix to search (case-insensitive, trimmed)
+     * @param limit maximum number of cards to return
+     * @return matching collection cards in alphabetical order
      */
-    private void returnCardsToCollection(ArrayList<Card> cards) {
-        for (Card card : cards) {
-            if (card != null) {
-                addCardToCollection(card);
+    public ArrayList<Card> searchCardsByPrefix(String prefix, int limit) {
+        return this.CARD_COLLECTION.findByPrefix(prefix, limit);
+    }
+
+    /**
+     * Search card names tolerating typos, covering every container as in
+     * {@link #searchCardsByPrefix(String, int)}.
+     * @param name name to match (case-insensitive, trimmed)
+     * @param maxEdits maximum insertions, deletions or substitutions allowed
+     * @param limit maximum number of cards to return
+     * @return matching collection cards, closest first
+     */
+    public ArrayList<Card> searchCardsBySimilarName(String name, int maxEdits, int limit) {
+        return this.CARD_COLLECTION.findSimilar(name, maxEdits, limit);
+    }
+
+    /**
+     * Filter the collection by rarity and/or variation.
+     * @param rarity rarity to match, or null for any rarity
+     * @param variation variation to match, or null for any variation
+     * @return matching collection cards in name order
+     */
+    public ArrayList<Card> filterCollection(Rarity rarity, Variation variation) {
+        return this.CARD_COLLECTION.findByAttributes(rarity, variation);
+    }
+
+    /**
+     * Find collection cards on hand whose adjusted value lies within a range.
+     * @param min lowest value to include
+     * @param max highest value to include
+     * @return matching cards by ascending value, then name
+     */
+    public ArrayList<Card> findCardsByValueRange(BigDecimal min, BigDecimal max) {
+        return this.CARD_COLLECTION.findByValueRange(min, max);
+    }
+
+    /**
+     * Find the most valuable collection cards on hand.
+     * @param k maximum number of cards to return
+     * @return up to k cards by descending value, then name
+     */
+    public ArrayList<Card> findMostValuableCards(int k) {
+        return this.CARD_COLLECTION.findTopByValue(k);
+    }
+
+    /**
+     * Page through the collection after a cursor.
+     * @param order order to list cards in
+     * @param cursor cursor from an earlier page, or null for the first page
+     * @param limit maximum number of cards on the page
+     * @return the page following the cursor
+     */
+    public CardPage pageCollectionAfter(CardPage.Order order, CardPage.Cursor cursor, int limit) {
+        return this.CARD_COLLECTION.pageAfter(order, cursor, limit);
+    }
+
+    /**
+     * Find where to page the collection from to reach a name prefix.
+     * @param order order being paged
+     * @param prefix name prefix (case-insensitive, trimmed)
+     * @return a cursor at the first matching card by name, or null if none matches
+     * @see CardCollection#seek
+     */
+    public CardPage.Cursor seekCollection(CardPage.Order order, String prefix) {
+        return this.CARD_COLLECTION.seek(order, prefix);
+    }
+
+    /**
+     * Page through the collection before a cursor.
+     * @param order order to list cards in
+     * @param cursor cursor from an earlier page, or null for the last page
+     * @param limit maximum number of cards on the page
+     * @return the page preceding the cursor
+     */
+    public CardPage pageCollectionBefore(CardPage.Order order, CardPage.Cursor cursor, int limit) {
+        return this.CARD_COLLECTION.pageBefore(order, cursor, limit);
+    }
+
+    /**
+     * Find every binder and deck holding copies of a card.
+     * Answered from a reverse index, so the cost follows the number of locations.
+     * @param name card name to locate (case-insensitive, trimmed)
+     * @return binder locations in the order copies first arrived, then deck locations
+     */
+    public ArrayList<CardLocation> locateCard(String name) {
+        String key = Card.normalizeName(name);
+        ArrayList<CardLocation> locations = new ArrayList<>();
+        LinkedHashMap<Binder, Integer> binders = this.BINDER_LOCATIONS.get(key);
+        if (binders != null) {
+            for (Map.Entry<Binder, Integer> e : binders.entrySet()) {
+                locations.add(new CardLocation(CardLocation.Kind.BINDER, e.getKey().getName(), e.getValue()));
+            }
+        }
+        LinkedHashSet<Deck> decks = this.DECK_LOCATIONS.get(key);
+        if (decks != null) {
+            for (Deck deck : decks) {
+                locations.add(new CardLocation(CardLocation.Kind.DECK, deck.getName(), 1));
             }
         }
+        return locations;
+    }
+
+    /**
+     * Record copies of a card entering (positive delta) or leaving (negative delta) a binder.
+     */
+    private void trackBinder(Binder binder, Card card, int delta) {
+        this.BINDER_STATS.record(card, delta);
+        LinkedHashMap<Binder, Integer> binders = this.BINDER_LOCATIONS.computeIfAbsent(card.getKey(), k -> new LinkedHashMap<>());
+        int copies = binders.getOrDefault(binder, 0) + delta;
+        if (copies > 0) {
+            binders.put(binder, copies);
+        } else {
+            binders.remove(binder);
+            if (binders.isEmpty()) this.BINDER_LOCATIONS.remove(card.getKey());
+        }
+    }
+
+    /**
+     * Record a card entering or leaving a deck.
+     */
+    private void trackDeck(Deck deck, Card card, boolean present) {
+        this.DECK_STATS.record(card, present ? 1 : -1);
+        if (present) {
+            this.DECK_LOCATIONS.computeIfAbsent(card.getKey(), k -> new LinkedHashSet<>()).add(deck);
+            return;
+        }
+        LinkedHashSet<Deck> decks = this.DECK_LOCATIONS.get(card.getKey());
+        if (decks != null) {
+            decks.remove(deck);
+            if (decks.isEmpty()) this.DECK_LOCATIONS.remove(card.getKey());
+        }
+    }
+
+    /**
+     * Helper to return a list of cards back into the collection in one merge.
+     * @param cards list of Card instances to return, one per copy
+     */
+    private void returnCardsToCollection(ArrayList<Card> cards) {
+        this.CARD_COLLECTION.addCards(cards);
     }
 
     /**
@@ -60,11 +424,11 @@ public class InventorySystem {
      * @throws NoSuchElementException if no binder with that name exists
      */
     public Binder findBinderByName(String name) {
-        for (Binder binder : this.BINDERS) {
-            if (binder.getName().equalsIgnoreCase(name))
-                return binder;
+        Binder binder = this.BINDERS.get(registryKey(name));
+        if (binder == null) {
+            throw new NoSuchElementException("binder \"" + name + "\" not found");
         }
-        throw new NoSuchElementException("binder \"" + name + "\" not found");
+        return binder;
     }
 
     /**
@@ -74,25 +438,35 @@ public class InventorySystem {
      * @throws NoSuchElementException if no deck with that name exists
      */
     public Deck findDeckByName(String name) {
-        for (Deck deck : this.DECKS) {
-            if (deck.getName().equalsIgnoreCase(name))
-                return deck;
+        Deck deck = this.DECKS.get(registryKey(name));
+        if (deck == null) {
+            throw new NoSuchElementException("deck \"" + name + "\" not found");
         }
-        throw new NoSuchElementException("deck \"" + name + "\" not found");
+        return deck;
     }
 
     /**
-     * Create a new Binder and add it to the system.
+     * Create a new Binder with the default capacity and add it to the system.
      * @param name name for the new binder
      * @throws IllegalStateException if a binder with that name already exists
      */
     public void createBinder(String name) {
-        for (Binder b : this.BINDERS) {
-            if (b.getName().equalsIgnoreCase(name))
-                throw new IllegalStateException("binder \"" + name + "\" already exists");
+        createBinder(name, Binder.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new Binder and add it to the system.
+     * @param name name for the new binder
+     * @param capacity maximum number of cards the binder holds
+     * @throws IllegalStateException if a binder with that name already exists
+     */
+    public void createBinder(String name, int capacity) {
+        Journal.Record record = prepare(() -> Journal.createBinder(name, capacity));
+        Binder binder = new Binder(name, capacity); // validates name and capacity
+        if (this.BINDERS.putIfAbsent(registryKey(binder.getName()), binder) != null) {
+            throw new IllegalStateException("binder \"" + name + "\" already exists");
         }
-        Binder binder = new Binder(name);
-        this.BINDERS.add(binder);
+        record(record);
     }
 
     /**
@@ -101,23 +475,62 @@ public class InventorySystem {
      * @throws NoSuchElementException if binder not found
      */
     public void deleteBinder(String name) {
-        Binder target = findBinderByName(name);
-        returnCardsToCollection(target.removeAllCards());
-        this.BINDERS.remove(target);
+        deleteBinders(List.of(name));
     }
 
     /**
-     * Create a new Deck and add it to the system.
+     * Delete several Binders at once, returning all their cards to the main collection
+     * in a single merge. Every name is resolved before anything is deleted.
+     * @param names names of the binders to delete; repeated names are deleted once
+     * @throws NoSuchElementException if any binder is not found
+     */
+    public void deleteBinders(Collection<String> names) {
+        Journal.Record record = prepare(() -> Journal.deleteBinders(names));
+        LinkedHashSet<Binder> targets = new LinkedHashSet<>();
+        for (String name : names) {
+            targets.add(findBinderByName(name));
+        }
+        // one card per binder entry, counting its copies, so bulk binders cost nothing per copy
+        LinkedHashMap<Binder, ArrayList<Card>> held = new LinkedHashMap<>();
+        ArrayList<Card> cards = new ArrayList<>();
+        for (Binder target : targets) {
+            ArrayList<Card> entries = target.getEntryCopy();
+            held.put(target, entries);
+            cards.addAll(entries);
+        }
+        this.CARD_COLLECTION.addCountedCards(cards); // binders stay intact if the merge is rejected
+        for (Map.Entry<Binder, ArrayList<Card>> e : held.entrySet()) {
+            for (Card card : e.getValue()) {
+                trackBinder(e.getKey(), card, -card.getCount());
+            }
+            e.getKey().clear();
+            this.BINDERS.remove(registryKey(e.getKey().getName()));
+        }
+        record(record);
+    }
+
+    /**
+     * Create a new Deck with the default capacity and add it to the system.
      * @param name name for the new deck
      * @throws IllegalStateException if a deck with that name already exists
      */
     public void createDeck(String name) {
-        for (Deck d : this.DECKS) {
-            if (d.getName().equalsIgnoreCase(name))
-                throw new IllegalStateException("deck \"" + name + "\" already exists");
+        createDeck(name, Deck.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new Deck and add it to the system.
+     * @param name name for the new deck
+     * @param capacity maximum number of cards the deck holds
+     * @throws IllegalStateException if a deck with that name already exists
+     */
+    public void createDeck(String name, int capacity) {
+        Journal.Record record = prepare(() -> Journal.createDeck(name, capacity));
+        Deck deck = new Deck(name, capacity); // validates name and capacity
+        if (this.DECKS.putIfAbsent(registryKey(deck.getName()), deck) != null) {
+            throw new IllegalStateException("deck \"" + name + "\" already exists");
         }
-        Deck deck = new Deck(name);
-        this.DECKS.add(deck);
+        record(record);
     }
 
     /**
@@ -126,9 +539,34 @@ public class InventorySystem {
      * @throws NoSuchElementException if deck not found
      */
     public void deleteDeck(String name) {
-        Deck target = findDeckByName(name);
-        returnCardsToCollection(target.removeAllCards());
-        this.DECKS.remove(target);
+        deleteDecks(List.of(name));
+    }
+
+    /**
+     * Delete several Decks at once, returning all their cards to the main collection
+     * in a single merge. Every name is resolved before anything is deleted.
+     * @param names names of the decks to delete; repeated names are deleted once
+     * @throws NoSuchElementException if any deck is not found
+     */
+    public void deleteDecks(Collection<String> names) {
+        Journal.Record record = prepare(() -> Journal.deleteDecks(names));
+        LinkedHashSet<Deck> targets = new LinkedHashSet<>();
+        for (String name : names) {
+            targets.add(findDeckByName(name));
+        }
+        ArrayList<Card> cards = new ArrayList<>();
+        for (Deck target : targets) {
+            cards.addAll(target.getView());
+        }
+        returnCardsToCollection(cards); // decks stay intact if the merge is rejected
+        for (Deck target : targets) {
+            for (Card card : target.getView()) {
+                trackDeck(target, card, false);
+            }
+            target.clear();
+            this.DECKS.remove(registryKey(target.getName()));
+        }
+        record(record);
     }
 
     /**
@@ -137,9 +575,12 @@ public class InventorySystem {
      * @param cardName name of card to remove
      */
     public void removeCardFromBinder(String binderName, String cardName) {
+        Journal.Record record = prepare(() -> Journal.removeFromBinder(binderName, cardName));
         Binder tBinder = findBinderByName(binderName);
         Card tCard = tBinder.removeCardByName(cardName);
-        addCardToCollection(tCard);
+        trackBinder(tBinder, tCard, -1);
+        putInCollection(tCard);
+        record(record);
     }
 
     /**
@@ -149,12 +590,24 @@ public class InventorySystem {
      * @throws IllegalStateException if binder is full (and rolls back)
      */
     public void addCardToBinder(String binderName, String cardName) {
+        Journal.Record record = prepare(() -> Journal.addToBinder(binderName, cardName));
         Binder tBinder = findBinderByName(binderName);
-        Card tCard = removeSingleCardFromCollection(cardName);
-        if(!tBinder.addCard(tCard)) {
-            addCardToCollection(tCard);
+        Card tCard = takeFromCollection(cardName);
+        boolean added;
+        try {
+            this.BINDER_STATS.checkAdd(tCard.getValueCents()); // the binders' totals must take it too
+            added = tBinder.addCard(tCard);
+        } catch (RuntimeException e) { // conflicting card, or totals out of range
+            putInCollection(tCard);
+            throw e;
+        }
+        if (!added) {
+            putInCollection(tCard);
             throw new IllegalStateException("unable to add to binder because it is full");
         }
+        trackBinder(tBinder, tCard, 1);
+        record(record);
+        compactIfNeeded();
     }
 
     /**
@@ -163,9 +616,12 @@ public class InventorySystem {
      * @param cardName name of card to remove
      */
     public void deleteCardFromDeck(String deckName, String cardName) {
+        Journal.Record record = prepare(() -> Journal.removeFromDeck(deckName, cardName));
         Deck tDeck = findDeckByName(deckName);
         Card tCard = tDeck.removeCardByName(cardName);
-        addCardToCollection(tCard);
+        trackDeck(tDeck, tCard, false);
+        putInCollection(tCard);
+        record(record);
     }
 
     /**
@@ -175,12 +631,24 @@ public class InventorySystem {
      * @throws IllegalStateException if deck is full or duplicate (and rolls back)
      */
     public void addCardToDeck(String deckName, String cardName) {
+        Journal.Record record = prepare(() -> Journal.addToDeck(deckName, cardName));
         Deck tDeck = findDeckByName(deckName);
-        Card tCard = removeSingleCardFromCollection(cardName);
-        if (!tDeck.addCard(tCard)) {
-            addCardToCollection(tCard);
+        Card tCard = takeFromCollection(cardName);
+        boolean added;
+        try {
+            this.DECK_STATS.checkAdd(tCard.getValueCents()); // the decks' totals must take it too
+            added = tDeck.addCard(tCard);
+        } catch (RuntimeException e) { // conflicting card, or totals out of range
+            putInCollection(tCard);
+            throw e;
+        }
+        if (!added) {
+            putInCollection(tCard);
             throw new IllegalStateException("unable to add to deck (full or duplicate)");
         }
+        trackDeck(tDeck, tCard, true);
+        record(record);
+        compactIfNeeded();
     }
 
     /**
@@ -192,27 +660,197 @@ public class InventorySystem {
      * @return true if trade completed, false if cancelled due to value diff
      */
     public boolean tradeCard(String binderName, String outgoingName, Card incomingCard, boolean force) {
+        Journal.Record record = prepare(() -> Journal.trade(binderName, outgoingName, incomingCard));
         Binder tBinder = findBinderByName(binderName);
         Card outgoingCard = tBinder.removeCardByName(outgoingName);
-        addCardToCollection(incomingCard);
-        BigDecimal diff = incomingCard.getValue().subtract(outgoingCard.getValue()).abs();
-        if (diff.compareTo(BigDecimal.ONE) >= 0 && !force) {
-            removeSingleCardFromCollection(incomingCard.getName());
+        try {
+            putInCollection(incomingCard);
+        } catch (RuntimeException e) { // conflicting card, or totals out of range
+            tBinder.addCard(outgoingCard);
+            throw e;
+        }
+        long diff = Math.abs(incomingCard.getValueCents() - outgoingCard.getValueCents());
+        if (diff >= Money.CENTS_PER_UNIT && !force) {
+            takeFromCollection(incomingCard.getName());
+            tBinder.addCard(outgoingCard); // outgoing card never left the index
+            return false; // no compaction, the caller may retry with the same card
+        }
+        Card tradeCard = takeFromCollection(incomingCard.getName());
+        try {
+            this.BINDER_STATS.checkAdd(tradeCard.getValueCents() - outgoingCard.getValueCents());
+            tBinder.addCard(tradeCard);
+        } catch (RuntimeException e) { // the totals cannot take it; the outgoing card stays
             tBinder.addCard(outgoingCard);
-            return false;
+            throw e;
         }
-        Card tradeCard = removeSingleCardFromCollection(incomingCard.getName());
-        tBinder.addCard(tradeCard);
+        trackBinder(tBinder, outgoingCard, -1);
+        trackBinder(tBinder, tradeCard, 1);
+        record(record);
+        compactIfNeeded();
         return true;
     }
 
+    /**
+     * Purge zero-count cards from the collection, keeping any still held in a binder or deck.
+     * @return the purged cards, for archiving
+     */
+    public ArrayList<Card> compactCollection() {
+        Journal.Record record = prepare(Journal::compact);
+        ArrayList<Card> purged = this.CARD_COLLECTION.compact(this::isHeldElsewhere);
+        record(record);
+        return purged;
+    }
+
+    /**
+     * Turn automatic compaction on or off. When on, the collection is compacted after an
+     * operation leaves at least {@value #AUTO_COMPACT_MIN} zero-count entries making up
+     * half or more of it, so the cost is spread over the removals that created them.
+     * @param enabled true to compact automatically
+     */
+    public void setAutoCompaction(boolean enabled) {
+        this.autoCompact = enabled;
+    }
+
+    /**
+     * Compact the collection if automatic compaction is on and zero-count entries dominate.
+     * Called only once an operation has finished moving cards, so held cards are tracked.
+     * The compaction is recorded like a manual one; replay applies those records and never
+     * compacts on its own, since the setting is not journaled.
+     */
+    private void compactIfNeeded() {
+        if (this.replaying) return;
+        int zero = this.CARD_COLLECTION.getZeroCountEntries();
+        if (this.autoCompact && zero >= AUTO_COMPACT_MIN && zero * 2 >= this.CARD_COLLECTION.size()) {
+            compactCollection();
+        }
+    }
+
+    /**
+     * Encode a mutation for the open journal before it changes anything, refusing it if
+     * the journal can no longer record it, so memory never runs ahead of the journal.
+     * @param encoder encodes the mutation's record
+     * @return the record to append once the mutation succeeds, or null if no journal is open
+     * @throws UncheckedIOException if an earlier journal batch could not be written
+     * @throws IllegalArgumentException if the mutation is too large to journal
+     */
+    private Journal.Record prepare(Supplier<Journal.Record> encoder) {
+        if (this.journal == null) return null;
+        this.journal.checkWritable();
+        return encoder.get();
+    }
+
+    /**
+     * Append the record prepared for a mutation that has now succeeded.
+     * @param record from {@link #prepare}, or null if no journal is open
+     * @throws UncheckedIOException if the journal batch cannot be written
+     */
+    private void record(Journal.Record record) {
+        if (record != null) this.journal.append(record);
+    }
+
+    /**
+     * @param key normalized card name
+     * @return true if any binder or deck holds the card
+     */
+    private boolean isHeldElsewhere(String key) {
+        return this.BINDER_LOCATIONS.containsKey(key) || this.DECK_LOCATIONS.containsKey(key);
+    }
+
+    /**
+     * Remove one copy from the collection without compacting, for moves still in progress.
+     * @param name name of card to remove
+     * @return the removed Card instance
+     */
+    private Card takeFromCollection(String name) {
+        return this.CARD_COLLECTION.removeCardByName(name);
+    }
+
+    /**
+     * Add a card to the collection without recording it, for moves recorded as a whole.
+     * @param c the Card to add
+     */
+    private void putInCollection(Card c) {
+        this.CARD_COLLECTION.addCard(c);
+    }
+
+    /**
+     * Snapshot of copy and value totals for the collection, binders and decks.
+     * Running totals are kept for the collection and for all binders and all decks
+     * together, so the cost is constant whatever the inventory holds.
+     * @return current inventory statistics
+     */
+    public InventoryStatistics getStatistics() {
+        return new InventoryStatistics(this.CARD_COLLECTION.getStatistics(),
+                this.BINDER_STATS.snapshot(), this.DECK_STATS.snapshot());
+    }
+
+    /**
+     * @return number of binders in the system
+     */
+    public int getBinderCount() {
+        return this.BINDERS.size();
+    }
+
+    /**
+     * @return number of decks in the system
+     */
+    public int getDeckCount() {
+        return this.DECKS.size();
+    }
+
+    /**
+     * Read-only view of all binder names, without copying.
+     * The view keeps creation order and reflects binders created or deleted later.
+     * @return unmodifiable view of binder names
+     */
+    public Collection<String> getBinderNameView() {
+        return namesOf(this.BINDERS.values(), Binder::getName);
+    }
+
+    /**
+     * Read-only view of all deck names, without copying.
+     * The view keeps creation order and reflects decks created or deleted later.
+     * @return unmodifiable view of deck names
+     */
+    public Collection<String> getDeckNameView() {
+        return namesOf(this.DECKS.values(), Deck::getName);
+    }
+
+    /**
+     * @return a read-only collection mapping each container to its name as it is iterated
+     */
+    private static <T> Collection<String> namesOf(Collection<T> containers, Function<T, String> name) {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<T> it = containers.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return name.apply(it.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return containers.size();
+            }
+        };
+    }
+
     /**
      * Retrieve names of all binders in the system.
-     * @return list of binder names
+     * @return list of binder names, in creation order
      */
     public ArrayList<String> getBinderNames() {
         ArrayList<String> binderNames = new ArrayList<>();
-        for (Binder binder : this.BINDERS) {
+        for (Binder binder : this.BINDERS.values()) {
             binderNames.add(binder.getName());
         }
         return binderNames;
@@ -220,11 +858,11 @@ public class InventorySystem {
 
     /**
      * Retrieve names of all decks in the system.
-     * @return list of deck names
+     * @return list of deck names, in creation order
      */
     public ArrayList<String> getDeckNames() {
         ArrayList<String> deckNames = new ArrayList<>();
-        for (Deck deck : this.DECKS) {
+        for (Deck deck : this.DECKS.values()) {
             deckNames.add(deck.getName());
         }
         return deckNames;
@@ -235,7 +873,35 @@ public class InventorySystem {
      * @param c the Card to add
      */
     public void addCardToCollection(Card c) {
-        this.CARD_COLLECTION.addCard(c);
+        Journal.Record record = prepare(() -> Journal.addCard(c));
+        putInCollection(c);
+        record(record);
+    }
+
+    /**
+     * Merge a batch of cards into the collection, each standing for one copy.
+     * @param cards cards to merge
+     * @throws IllegalArgumentException if a card conflicts with the collection or the batch
+     *         (same name but different attributes); nothing is added then
+     * @see CardCollection#addCards
+     */
+    public void addCardsToCollection(List<Card> cards) {
+        Journal.Record record = prepare(() -> Journal.addCards(cards));
+        this.CARD_COLLECTION.addCards(cards);
+        record(record);
+    }
+
+    /**
+     * Import cards from a CSV or TSV file, one copy per row, parsing rows in parallel and
+     * adding them in batches. A row that cannot be parsed or conflicts with a card
+     * already present is reported and skipped; the rest of the file is still imported.
+     * @param path file of name, rarity, variation and base value rows
+     * @return rows read, cards added, and the rows rejected with reasons
+     * @throws IOException if the file cannot be read; batches added before the failure stay
+     * @see CardImporter
+     */
+    public ImportReport importCards(Path path) throws IOException {
+        return new CardImporter(this, Runtime.getRuntime().availableProcessors()).importFile(path);
     }
 
     /**
@@ -244,7 +910,11 @@ public class InventorySystem {
      * @return the removed Card instance
      */
     public Card removeSingleCardFromCollection(String name) {
-        return this.CARD_COLLECTION.removeCardByName(name);
+        Journal.Record record = prepare(() -> Journal.removeCard(name));
+        Card card = takeFromCollection(name);
+        record(record);
+        compactIfNeeded();
+        return card;
     }
 
     /**
@@ -252,7 +922,9 @@ public class InventorySystem {
      * @param name name of card to increment
      */
     public void incrementCardInCollection(String name) {
+        Journal.Record record = prepare(() -> Journal.incrementCard(name));
         this.CARD_COLLECTION.incrementCard(name);
+        record(record);
     }
 
     /**
@@ -260,6 +932,9 @@ public class InventorySystem {
      * @param name name of card to decrement
      */
     public void decrementCardInCollection(String name) {
+        Journal.Record record = prepare(() -> Journal.decrementCard(name));
         this.CARD_COLLECTION.decrementCard(name);
+        record(record);
+        compactIfNeeded();
     }
 }
@@ -0,0 +1,916 @@
+package com.System;
+
+import com.TradingCard.Card;
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal is an append-only binary log of {@link InventorySystem} mutations.
+ * <p>
+ * The file starts with a four-byte magic number and the offset of its first record.
+ * Offsets count from the start of the journal as first created and never restart:
+ * once a snapshot holding the records before its mark is written, those records are
+ * dropped by moving the rest to a new file that starts at the mark, so the mark still
+ * names the first record to replay. Files from before this header began with the
+ * magic number alone and their first record. Each record that follows is a
+ * four-byte payload length, a CRC-32C of the payload, and the payload itself: one
+ * operation code and its arguments. Names are length-prefixed UTF-8 and cards carry
+ * their attributes inline, so a typical record is a few dozen bytes.
+ * <p>
+ * Each mutation is encoded into a {@link Record} before it is applied, so a record that
+ * cannot be encoded stops the mutation, and the record is appended once the mutation
+ * succeeds. Records are appended to an in-memory batch and made durable by group commit: one
+ * caller writes the whole batch and forces it to disk while others keep appending to
+ * a second buffer, and every record in the batch is made durable by that single force.
+ * The {@link JournalPolicy} decides when a batch is committed. Appending is thread-safe.
+ * <p>
+ * Replay applies records in order until the first one that is cut short or fails its
+ * checksum, which is where a crash interrupted a write; the file is truncated there
+ * so later records append after the last good one. A batch of cards split over several
+ * records is applied only when its last record is intact, and is otherwise cut off whole.
+ */
+final class Journal implements AutoCloseable {
+    private static final int MAGIC = 0x54434A32;   // "TCJ2"
+    private static final int MAGIC_V1 = 0x54434A31; // "TCJ1", files without a first-record offset
+    private static final int HEADER = 12;          // magic + offset of the first record
+    private static final int RECORD_HEADER = 8;    // payload length + checksum
+    private static final int MAX_PAYLOAD = 1 << 24; // larger lengths can only be damage
+    private static final int CARDS_PER_RECORD = 1024; // larger batches continue over several records
+
+    // operation codes, stored on disk: never renumber
+    private static final byte ADD_CARD = 1;
+    private static final byte REMOVE_CARD = 2;
+    private static final byte INCREMENT_CARD = 3;
+    private static final byte DECREMENT_CARD = 4;
+    private static final byte CREATE_BINDER = 5;
+    private static final byte DELETE_BINDERS = 6;
+    private static final byte CREATE_DECK = 7;
+    private static final byte DELETE_DECKS = 8;
+    private static final byte ADD_TO_BINDER = 9;
+    private static final byte REMOVE_FROM_BINDER = 10;
+    private static final byte ADD_TO_DECK = 11;
+    private static final byte REMOVE_FROM_DECK = 12;
+    private static final byte TRADE = 13;
+    private static final byte COMPACT = 14;
+    private static final byte ADD_CARDS = 15;
+    private static final byte ADD_CARDS_PART = 16; // cards of a batch that the next record continues
+
+    private final Path PATH;
+    private final JournalPolicy POLICY;
+    private final ScheduledExecutorService FLUSHER; // commits on a timer, or null
+    private final long OPENED_NANOS;
+
+    // guarded by this
+    private FileChannel channel;      // the journal file; replaced only by the caller holding flushing
+    private long base;                // offset of the file's first record
+    private int header;               // bytes before the first record
+    private boolean closed;           // close() has begun
+    private ByteBuffer pending;       // records not yet handed to a batch, then the one being built
+    private ByteBuffer spare;         // the other buffer; null while it holds the batch being written
+    private int pendingRecords;       // complete records in pending
+    private long pendingOldestNanos;  // append time of the first record in pending
+    private long pendingNanosSum;     // append times of records in pending, relative to OPENED_NANOS
+    private long appended;            // records appended since open
+    private long durable;             // records written and forced since open
+    private long endOffset;           // file offset just past the last appended record
+    private boolean flushing;         // a caller is writing a batch
+    private IOException failure;      // first write failure; the journal refuses records after it
+    private long batches;             // batches forced to disk
+    private long bytesWritten;        // bytes forced to disk
+    private long latencyNanosSum;     // append-to-durable time summed over durable records
+    private long maxLatencyNanos;     // slowest append-to-durable time seen
+
+    /**
+     * Constructs a Journal over an open channel positioned for appending.
+     * @param path location of the journal file
+     * @param channel writable channel to the file
+     * @param policy when batches are committed
+     * @param base offset of the file's first record
+     * @param header bytes before the first record
+     * @param endOffset offset just past the file's last record
+     */
+    private Journal(Path path, FileChannel channel, JournalPolicy policy, long base, int header, long endOffset) {
+        this.PATH = path;
+        this.channel = channel;
+        this.base = base;
+        this.header = header;
+        this.POLICY = policy;
+        this.OPENED_NANOS = System.nanoTime();
+        this.pending = ByteBuffer.allocateDirect(1 << 12);
+        this.spare = ByteBuffer.allocateDirect(1 << 12);
+        this.endOffset = endOffset;
+        if (policy.getMode() == JournalPolicy.Mode.EVERY_MILLIS) {
+            this.FLUSHER = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "journal-flusher");
+                thread.setDaemon(true); // close() commits the last batch
+                return thread;
+            });
+            this.FLUSHER.scheduleWithFixedDelay(this::flushQuietly, policy.getInterval(),
+                    policy.getInterval(), TimeUnit.MILLISECONDS);
+        } else {
+            this.FLUSHER = null;
+        }
+    }
+
+    /**
+     * Open a journal file, creating it if absent, and replay its records into a system.
+     * The system must not have a journal attached, so replayed mutations are not recorded again.
+     * @param path location of the journal file
+     * @param system the system to restore
+     * @param policy when batches of later records are committed
+     * @return the open journal, positioned after the last good record
+     * @throws IOException if the file cannot be read or written, is not a journal,
+     *                     or holds a record the system rejects
+     */
+    static Journal open(Path path, InventorySystem system, JournalPolicy policy) throws IOException {
+        return open(path, system, policy, 0);
+    }
+
+    /**
+     * Open a journal file and replay only the records from a given offset, those before it
+     * being already reflected in the system, as after loading a snapshot.
+     * @param path location of the journal file
+     * @param system the system to restore
+     * @param policy when batches of later records are committed
+     * @param from offset of the first record to replay, from {@link #getEndOffset()}; 0 for all
+     * @return the open journal, positioned after the last good record
+     * @throws IOException if the file cannot be read or written, is not a journal, ends
+     *                     before from, starts after it, or holds a record the system rejects
+     */
+    static Journal open(Path path, InventorySystem system, JournalPolicy policy, long from) throws IOException {
+        boolean created = !Files.exists(path) || Files.size(path) == 0;
+        if (created && from > HEADER) {
+            throw new IOException(path + " ends before offset " + from + ", where the snapshot left off");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long base = HEADER;
+            int header = HEADER;
+            if (created) {
+                channel.write(ByteBuffer.allocate(HEADER).putInt(MAGIC).putLong(base).flip(), 0);
+            } else {
+                ByteBuffer head = ByteBuffer.allocate(HEADER);
+                while (head.hasRemaining() && channel.read(head, head.position()) > 0) {
+                    // read until full or end of file
+                }
+                head.flip();
+                int magic = head.remaining() >= 4 ? head.getInt() : 0;
+                if (magic == MAGIC && head.remaining() == 8) {
+                    base = head.getLong();
+                } else if (magic == MAGIC_V1) {
+                    base = 4;
+                    header = 4;
+                } else {
+                    throw new IOException(path + " is not a card journal");
+                }
+                if (base < header) throw new IOException(path + " is not a card journal");
+            }
+            long end = channel.size() - header + base;
+            if (from > end) {
+                throw new IOException(path + " ends before offset " + from + ", where the snapshot left off");
+            }
+            if (base > header && from < base) { // only a snapshot at or after base holds the dropped records
+                throw new IOException(path + " starts at offset " + base + ", after offset " + from
+                        + " where the snapshot left off");
+            }
+            long good = replay(path, system, Math.max(from, base), base, header);
+            channel.truncate(good - base + header); // drop a torn tail left by a crash
+            channel.position(good - base + header);
+            channel.force(true);
+            return new Journal(path, channel, policy, base, header, good);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Apply every intact record of a journal file, from a record boundary on, to a system.
+     * @param start offset of the first record to apply
+     * @param base offset of the file's first record
+     * @param header bytes before the file's first record
+     * @return offset just past the last intact record
+     */
+    private static long replay(Path path, InventorySystem system, long start, long base, int header) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            in.skipNBytes(header + start - base);
+            long offset = start;
+            CRC32C crc = new CRC32C();
+            byte[] payload = new byte[256];
+            ArrayList<Card> batch = null; // cards of a batch whose last record is still to come
+            long batchStart = offset;
+            while (true) {
+                int length;
+                int checksum;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length <= 0 || length > MAX_PAYLOAD) return batch == null ? offset : batchStart;
+                    if (payload.length < length) payload = new byte[Math.max(length, payload.length * 2)];
+                    in.readFully(payload, 0, length);
+                } catch (EOFException e) {
+                    return batch == null ? offset : batchStart; // clean end, or a record cut short
+                }
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) return batch == null ? offset : batchStart;
+                try {
+                    ByteBuffer record = ByteBuffer.wrap(payload, 0, length);
+                    byte op = record.get(0);
+                    if (op == ADD_CARDS_PART || batch != null) {
+                        if (batch == null) {
+                            batch = new ArrayList<>();
+                            batchStart = offset;
+                        } else if (op != ADD_CARDS_PART && op != ADD_CARDS) {
+                            throw new IllegalArgumentException("batch of cards interrupted by operation " + op);
+                        }
+                        record.get();
+                        batch.addAll(readCards(record));
+                        if (op == ADD_CARDS) {
+                            system.addCardsToCollection(batch);
+                            batch = null;
+                        }
+                    } else {
+                        apply(record, system);
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException("journal record at offset " + offset + " could not be replayed: "
+                            + e.getMessage(), e);
+                }
+                offset += RECORD_HEADER + length;
+            }
+        }
+    }
+
+    /**
+     * Decode one record payload and perform its mutation.
+     */
+    private static void apply(ByteBuffer in, InventorySystem system) {
+        byte op = in.get();
+        switch (op) {
+            case ADD_CARD -> system.addCardToCollection(readCard(in));
+            case REMOVE_CARD -> system.removeSingleCardFromCollection(readString(in));
+            case INCREMENT_CARD -> system.incrementCardInCollection(readString(in));
+            case DECREMENT_CARD -> system.decrementCardInCollection(readString(in));
+            case CREATE_BINDER -> system.createBinder(readString(in), in.getInt());
+            case DELETE_BINDERS -> system.deleteBinders(readStrings(in));
+            case CREATE_DECK -> system.createDeck(readString(in), in.getInt());
+            case DELETE_DECKS -> system.deleteDecks(readStrings(in));
+            case ADD_TO_BINDER -> system.addCardToBinder(readString(in), readString(in));
+            case REMOVE_FROM_BINDER -> system.removeCardFromBinder(readString(in), readString(in));
+            case ADD_TO_DECK -> system.addCardToDeck(readString(in), readString(in));
+            case REMOVE_FROM_DECK -> system.deleteCardFromDeck(readString(in), readString(in));
+            case TRADE -> system.tradeCard(readString(in), readString(in), readCard(in), true); // it completed
+            case COMPACT -> system.compactCollection();
+            case ADD_CARDS -> system.addCardsToCollection(readCards(in));
+            default -> throw new IllegalArgumentException("unknown operation " + op);
+        }
+    }
+
+    /**
+     * @return the location of the journal file
+     */
+    Path getPath() {
+        return PATH;
+    }
+
+    /**
+     * @return the policy deciding when batches are committed
+     */
+    JournalPolicy getPolicy() {
+        return POLICY;
+    }
+
+    /**
+     * Offset just past the last record appended, whether or not it is durable yet. A
+     * snapshot of the state after those records can resume replay from here.
+     * @return current end of the journal
+     */
+    synchronized long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Snapshot of the counters kept since the journal was opened.
+     * @return current throughput and commit latency figures
+     */
+    synchronized JournalMetrics getMetrics() {
+        return new JournalMetrics(appended, durable, batches, bytesWritten,
+                latencyNanosSum, maxLatencyNanos, System.nanoTime() - OPENED_NANOS);
+    }
+
+    /**
+     * Encode a card added to the collection.
+     * @param card the added card
+     * @return the record, to append once the card is added
+     */
+    static Record addCard(Card card) {
+        return encode(ADD_CARD, out -> out.putCard(card));
+    }
+
+    /**
+     * Encode a batch of cards merged into the collection, one copy each. A batch larger
+     * than {@value #CARDS_PER_RECORD} cards is split into records that each say whether
+     * the batch continues; replay merges the batch only once its last record is read.
+     * @param cards the merged cards
+     * @return the records, to append together once the batch is merged
+     */
+    static Record addCards(List<Card> cards) {
+        Encoder out = new Encoder();
+        int from = 0;
+        while (from < cards.size()) {
+            int to = Math.min(cards.size(), from + CARDS_PER_RECORD);
+            out.begin(to < cards.size() ? ADD_CARDS_PART : ADD_CARDS);
+            out.putInt(to - from);
+            for (Card c : cards.subList(from, to)) out.putCard(c);
+            out.end();
+            from = to;
+        }
+        return out.finish();
+    }
+
+    /**
+     * Encode one copy removed from the collection.
+     * @param name name of the card
+     * @return the record, to append once the copy is removed
+     */
+    static Record removeCard(String name) {
+        return names(REMOVE_CARD, name);
+    }
+
+    /**
+     * Encode a collection count raised by one.
+     * @param name name of the card
+     * @return the record, to append once the count is raised
+     */
+    static Record incrementCard(String name) {
+        return names(INCREMENT_CARD, name);
+    }
+
+    /**
+     * Encode a collection count lowered by one.
+     * @param name name of the card
+     * @return the record, to append once the count is lowered
+     */
+    static Record decrementCard(String name) {
+        return names(DECREMENT_CARD, name);
+    }
+
+    /**
+     * Encode a new binder.
+     * @param name name of the binder
+     * @param capacity its capacity
+     * @return the record, to append once the binder exists
+     */
+    static Record createBinder(String name, int capacity) {
+        return encode(CREATE_BINDER, out -> {
+            out.putString(name);
+            out.putInt(capacity);
+        });
+    }
+
+    /**
+     * Encode binders deleted together.
+     * @param names names of the binders
+     * @return the record, to append once the binders are deleted
+     */
+    static Record deleteBinders(Collection<String> names) {
+        return encode(DELETE_BINDERS, out -> out.putStrings(names));
+    }
+
+    /**
+     * Encode a new deck.
+     * @param name name of the deck
+     * @param capacity its capacity
+     * @return the record, to append once the deck exists
+     */
+    static Record createDeck(String name, int capacity) {
+        return encode(CREATE_DECK, out -> {
+            out.putString(name);
+            out.putInt(capacity);
+        });
+    }
+
+    /**
+     * Encode decks deleted together.
+     * @param names names of the decks
+     * @return the record, to append once the decks are deleted
+     */
+    static Record deleteDecks(Collection<String> names) {
+        return encode(DELETE_DECKS, out -> out.putStrings(names));
+    }
+
+    /**
+     * Encode a card moved from the collection into a binder.
+     * @param binderName name of the binder
+     * @param cardName name of the card
+     * @return the record, to append once the card is moved
+     */
+    static Record addToBinder(String binderName, String cardName) {
+        return names(ADD_TO_BINDER, binderName, cardName);
+    }
+
+    /**
+     * Encode a card moved from a binder back to the collection.
+     * @param binderName name of the binder
+     * @param cardName name of the card
+     * @return the record, to append once the card is moved
+     */
+    static Record removeFromBinder(String binderName, String cardName) {
+        return names(REMOVE_FROM_BINDER, binderName, cardName);
+    }
+
+    /**
+     * Encode a card moved from the collection into a deck.
+     * @param deckName name of the deck
+     * @param cardName name of the card
+     * @return the record, to append once the card is moved
+     */
+    static Record addToDeck(String deckName, String cardName) {
+        return names(ADD_TO_DECK, deckName, cardName);
+    }
+
+    /**
+     * Encode a card moved from a deck back to the collection.
+     * @param deckName name of the deck
+     * @param cardName name of the card
+     * @return the record, to append once the card is moved
+     */
+    static Record removeFromDeck(String deckName, String cardName) {
+        return names(REMOVE_FROM_DECK, deckName, cardName);
+    }
+
+    /**
+     * Encode a completed trade.
+     * @param binderName name of the binder traded from
+     * @param outgoingName name of the card traded away
+     * @param incoming the card received
+     * @return the record, to append once the trade completes
+     */
+    static Record trade(String binderName, String outgoingName, Card incoming) {
+        return encode(TRADE, out -> {
+            out.putString(binderName);
+            out.putString(outgoingName);
+            out.putCard(incoming);
+        });
+    }
+
+    /**
+     * Encode a compaction of the collection, manual or automatic.
+     * @return the record, to append once the collection is compacted
+     */
+    static Record compact() {
+        return encode(COMPACT, out -> { });
+    }
+    /**
+     * Commit every record appended so far, whatever the policy.
+     * @throws UncheckedIOException if the batch cannot be written
+     */
+    void flush() {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        commitThrough(target);
+    }
+
+    /**
+     * Commit outstanding records and close the journal file.
+     * @throws IOException if the last batch cannot be written or the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (FLUSHER != null) {
+            FLUSHER.shutdown(); // no interrupt: an interrupted channel write closes the channel
+            try {
+                FLUSHER.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        IOException error = null;
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            error = e.getCause();
+        }
+        FileChannel last;
+        synchronized (this) {
+            awaitBatch(); // a trim may be replacing the file
+            closed = true;
+            last = channel;
+        }
+        last.close();
+        if (error != null) throw error;
+    }
+
+    /**
+     * Drop the records before a snapshot's mark once the snapshot is written. The records
+     * from the mark on are copied after a new header into a file beside the journal, which
+     * is forced and then moved over it; records appended meanwhile wait in the batch and
+     * are written to the new file. Offsets are unchanged, so the mark is where replay of
+     * the new file begins. Does nothing if the journal is closed, has failed, or already
+     * starts at or after the mark.
+     * @param mark offset a written snapshot is current to, from {@link #getEndOffset()}
+     *             after a {@link #flush()}
+     * @throws IOException if the new file cannot be written or moved; the journal is
+     *                     unchanged then
+     */
+    void truncateBefore(long mark) throws IOException {
+        FileChannel current;
+        long position;
+        synchronized (this) {
+            awaitBatch();
+            if (closed || failure != null || mark <= base) return;
+            if (mark > endOffset) throw new IllegalArgumentException("mark " + mark + " is past the journal's end");
+            flushing = true; // keeps commits off the channel until the new file is in place
+            current = channel;
+            position = mark - base + header;
+        }
+        Path temp = PATH.resolveSibling(PATH.getFileName() + ".trim");
+        FileChannel next = null;
+        try {
+            next = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer head = ByteBuffer.allocate(HEADER).putInt(MAGIC).putLong(mark).flip();
+            while (head.hasRemaining()) next.write(head);
+            long end = current.size(); // every record before the mark was flushed
+            while (position < end) {
+                position += current.transferTo(position, end - position, next);
+            }
+            next.force(true);
+            Files.move(temp, PATH, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            if (next != null) next.close();
+            Files.deleteIfExists(temp);
+            synchronized (this) {
+                flushing = false;
+                notifyAll();
+            }
+            throw e;
+        }
+        next.position(next.size());
+        synchronized (this) {
+            channel = next;
+            base = mark;
+            header = HEADER;
+            flushing = false;
+            notifyAll();
+        }
+        current.close();
+    }
+
+    /**
+     * Wait, holding the lock, until no caller is writing a batch.
+     */
+    private void awaitBatch() {
+        boolean interrupted = false;
+        while (flushing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Timer task: commit what has been appended, leaving a failure for the next append to report.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            // kept in failure
+        }
+    }
+
+    /**
+     * Encode an operation whose arguments are all names.
+     */
+    private static Record names(byte op, String... names) {
+        return encode(op, out -> {
+            for (String name : names) out.putString(name);
+        });
+    }
+
+    /**
+     * Encode one record.
+     * @param op operation code
+     * @param arguments writes the record's arguments
+     * @throws IllegalArgumentException if the record is too large to replay
+     */
+    private static Record encode(byte op, Consumer<Encoder> arguments) {
+        Encoder out = new Encoder();
+        out.begin(op);
+        arguments.accept(out);
+        out.end();
+        return out.finish();
+    }
+
+    /**
+     * Append encoded records to the pending batch, then commit according to the policy.
+     * The records always join the batch, so the mutation they describe is journaled
+     * unless the batch itself cannot be written.
+     * @param record records from one of the encoding methods, describing a completed mutation
+     * @throws UncheckedIOException if this or an earlier batch could not be written
+     */
+    void append(Record record) {
+        long seq;
+        boolean commit;
+        synchronized (this) {
+            ByteBuffer bytes = record.BYTES.duplicate();
+            ensure(bytes.remaining());
+            endOffset += bytes.remaining();
+            pending.put(bytes);
+
+            long now = System.nanoTime();
+            if (pendingRecords == 0) pendingOldestNanos = now;
+            pendingRecords += record.COUNT;
+            pendingNanosSum += record.COUNT * (now - OPENED_NANOS);
+            appended += record.COUNT;
+            seq = appended;
+            commit = switch (POLICY.getMode()) {
+                case PER_OPERATION -> true;
+                case EVERY_RECORDS -> pendingRecords >= POLICY.getInterval();
+                case EVERY_MILLIS -> false; // the flusher commits
+            };
+        }
+        if (commit) commitThrough(seq);
+    }
+    /**
+     * Make every record up to seq durable. If another caller is writing a batch, wait for
+     * it; if that batch did not cover seq, write everything pending as the next batch.
+     * @param seq sequence number of the last record that must be durable
+     * @throws UncheckedIOException if the batch cannot be written
+     */
+    private void commitThrough(long seq) {
+        ByteBuffer batch;
+        int records;
+        long last;
+        long oldest;
+        long nanosSum;
+        synchronized (this) {
+            boolean interrupted = false;
+            while (flushing && durable < seq) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true; // the record is already appended, so keep waiting
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (durable >= seq) return;
+            checkFailure();
+            flushing = true; // everything after durable is pending; take it as the batch
+            batch = pending;
+            pending = spare;
+            spare = null;
+            records = pendingRecords;
+            last = appended;
+            oldest = pendingOldestNanos;
+            nanosSum = pendingNanosSum;
+            pendingRecords = 0;
+            pendingNanosSum = 0;
+        }
+        IOException error = null;
+        batch.flip();
+        int size = batch.limit();
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        }
+        long done = System.nanoTime();
+        synchronized (this) {
+            flushing = false;
+            batch.clear();
+            spare = batch;
+            if (error == null) {
+                durable = last;
+                batches++;
+                bytesWritten += size;
+                latencyNanosSum += records * (done - OPENED_NANOS) - nanosSum;
+                maxLatencyNanos = Math.max(maxLatencyNanos, done - oldest);
+            } else {
+                failure = error; // the batch is lost, so later records could not replay
+            }
+            notifyAll();
+        }
+        if (error != null) {
+            throw new UncheckedIOException("unable to write journal " + PATH, error);
+        }
+    }
+
+    /**
+     * Check that the journal can still take records, before a mutation is applied.
+     * @throws UncheckedIOException if an earlier batch could not be written
+     */
+    synchronized void checkWritable() {
+        checkFailure();
+    }
+
+    /**
+     * @throws UncheckedIOException if an earlier batch could not be written
+     */
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("journal " + PATH + " failed earlier", failure);
+        }
+    }
+
+    /**
+     * Make room for at least n more bytes in pending.
+     */
+    private void ensure(int n) {
+        if (pending.remaining() >= n) return;
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(pending.capacity() * 2, pending.position() + n));
+        pending.flip();
+        grown.put(pending);
+        pending = grown;
+    }
+
+    /**
+     * Read a length-prefixed UTF-8 string.
+     */
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    /**
+     * Read a count followed by that many strings.
+     */
+    private static ArrayList<String> readStrings(ByteBuffer in) {
+        int n = in.getInt();
+        ArrayList<String> strings = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) strings.add(readString(in));
+        return strings;
+    }
+
+    /**
+     * Read a count followed by that many cards.
+     */
+    private static ArrayList<Card> readCards(ByteBuffer in) {
+        int n = in.getInt();
+        ArrayList<Card> cards = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) cards.add(readCard(in));
+        return cards;
+    }
+
+    /**
+     * Read a card written by {@link Encoder#putCard}.
+     */
+    private static Card readCard(ByteBuffer in) {
+        String name = readString(in);
+        Rarity rarity = Rarity.values()[in.get()];
+        Variation variation = Variation.values()[in.get()];
+        int scale = in.getInt();
+        byte[] unscaled = new byte[in.get() & 0xFF];
+        in.get(unscaled);
+        return new Card(name, rarity, variation, new BigDecimal(new BigInteger(unscaled), scale));
+    }
+
+    /**
+     * One or more framed records, encoded before the mutation they describe so that
+     * nothing is left to fail between applying the mutation and journaling it.
+     */
+    static final class Record {
+        private final ByteBuffer BYTES; // framed records, positioned at the first
+        private final int COUNT;        // records in BYTES
+
+        /**
+         * Constructs a Record over encoded bytes.
+         * @param bytes framed records, from position to limit
+         * @param count number of records
+         */
+        private Record(ByteBuffer bytes, int count) {
+            this.BYTES = bytes;
+            this.COUNT = count;
+        }
+    }
+
+    /**
+     * Builds framed records in a growing heap buffer, outside the journal's lock.
+     */
+    private static final class Encoder {
+        private final CRC32C CRC = new CRC32C();
+        private ByteBuffer out = ByteBuffer.allocate(64);
+        private int start; // offset of the record being built
+        private int count; // records finished
+
+        /**
+         * Start a record, leaving room for its header.
+         */
+        void begin(byte op) {
+            ensure(RECORD_HEADER + 1);
+            start = out.position();
+            out.position(start + RECORD_HEADER);
+            out.put(op);
+        }
+
+        /**
+         * Finish the current record by filling in its length and checksum.
+         * @throws IllegalArgumentException if the payload is too large to replay
+         */
+        void end() {
+            int length = out.position() - start - RECORD_HEADER;
+            if (length > MAX_PAYLOAD) {
+                throw new IllegalArgumentException("journal record of " + length + " bytes exceeds " + MAX_PAYLOAD);
+            }
+            CRC.reset();
+            CRC.update(out.array(), start + RECORD_HEADER, length);
+            out.putInt(start, length);
+            out.putInt(start + 4, (int) CRC.getValue());
+            count++;
+        }
+
+        /**
+         * @return the finished records
+         */
+        Record finish() {
+            return new Record(out.flip(), count);
+        }
+
+        /**
+         * Make room for at least n more bytes.
+         */
+        private void ensure(int n) {
+            if (out.remaining() >= n) return;
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + n));
+            out.flip();
+            grown.put(out);
+            out = grown;
+        }
+
+        /**
+         * Append a four-byte integer.
+         */
+        void putInt(int value) {
+            ensure(4);
+            out.putInt(value);
+        }
+
+        /**
+         * Append a length-prefixed UTF-8 string.
+         */
+        void putString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + bytes.length);
+            out.putInt(bytes.length);
+            out.put(bytes);
+        }
+
+        /**
+         * Append a count followed by that many strings.
+         */
+        void putStrings(Collection<String> strings) {
+            putInt(strings.size());
+            for (String s : strings) putString(s);
+        }
+
+        /**
+         * Append a card's name, rarity, variation and exact base value.
+         */
+        void putCard(Card card) {
+            putString(card.getName());
+            BigDecimal base = card.getBaseValue();
+            byte[] unscaled = base.unscaledValue().toByteArray();
+            ensure(2 + 4 + 1 + unscaled.length);
+            out.put((byte) card.getRarity().ordinal());
+            out.put((byte) card.getVariation().ordinal());
+            out.putInt(base.scale());
+            out.put((byte) unscaled.length);
+            out.put(unscaled);
+        }
+    }
+}
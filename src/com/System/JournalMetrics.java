@@ -0,0 +1,109 @@
+package com.System;
+
+/**
+ * JournalMetrics is a snapshot of journal throughput and commit latency since it was opened.
+ * <p>
+ * Commit latency runs from the moment a mutation is appended to the moment the batch
+ * holding it has been forced to disk, so under a batching policy it includes the time
+ * spent waiting for the batch to fill or the interval to pass.
+ */
+public class JournalMetrics {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final long RECORDS;
+    private final long DURABLE_RECORDS;
+    private final long BATCHES;
+    private final long BYTES;
+    private final long LATENCY_NANOS_SUM;
+    private final long MAX_LATENCY_NANOS;
+    private final long ELAPSED_NANOS;
+
+    /**
+     * Constructs a JournalMetrics.
+     * @param records mutations appended
+     * @param durableRecords mutations forced to disk
+     * @param batches batches forced to disk
+     * @param bytes bytes forced to disk
+     * @param latencyNanosSum commit latency summed over durable mutations
+     * @param maxLatencyNanos longest commit latency
+     * @param elapsedNanos time since the journal was opened
+     */
+    JournalMetrics(long records, long durableRecords, long batches, long bytes,
+                   long latencyNanosSum, long maxLatencyNanos, long elapsedNanos) {
+        this.RECORDS = records;
+        this.DURABLE_RECORDS = durableRecords;
+        this.BATCHES = batches;
+        this.BYTES = bytes;
+        this.LATENCY_NANOS_SUM = latencyNanosSum;
+        this.MAX_LATENCY_NANOS = maxLatencyNanos;
+        this.ELAPSED_NANOS = elapsedNanos;
+    }
+
+    /**
+     * @return mutations appended to the journal
+     */
+    public long getRecords() {
+        return RECORDS;
+    }
+
+    /**
+     * @return mutations forced to disk
+     */
+    public long getDurableRecords() {
+        return DURABLE_RECORDS;
+    }
+
+    /**
+     * @return batches forced to disk, one flush each
+     */
+    public long getBatches() {
+        return BATCHES;
+    }
+
+    /**
+     * @return bytes forced to disk
+     */
+    public long getBytes() {
+        return BYTES;
+    }
+
+    /**
+     * @return average mutations per batch, or 0 before the first batch
+     */
+    public double getAverageBatchSize() {
+        return BATCHES == 0 ? 0 : (double) DURABLE_RECORDS / BATCHES;
+    }
+
+    /**
+     * @return durable mutations per second since the journal was opened
+     */
+    public double getThroughput() {
+        return ELAPSED_NANOS == 0 ? 0 : DURABLE_RECORDS * NANOS_PER_SECOND / ELAPSED_NANOS;
+    }
+
+    /**
+     * @return average commit latency in nanoseconds, or 0 before the first batch
+     */
+    public double getAverageCommitLatencyNanos() {
+        return DURABLE_RECORDS == 0 ? 0 : (double) LATENCY_NANOS_SUM / DURABLE_RECORDS;
+    }
+
+    /**
+     * @return longest commit latency in nanoseconds
+     */
+    public long getMaxCommitLatencyNanos() {
+        return MAX_LATENCY_NANOS;
+    }
+
+    /**
+     * @return a multi-line summary of the figures
+     */
+    @Override
+    public String toString() {
+        return String.format("records: %d appended, %d durable%n", RECORDS, DURABLE_RECORDS)
+                + String.format("batches: %d (%.1f records each, %d bytes)%n", BATCHES, getAverageBatchSize(), BYTES)
+                + String.format("throughput: %.1f records/s%n", getThroughput())
+                + String.format("commit latency: %.1f us average, %.1f us max",
+                        getAverageCommitLatencyNanos() / 1000, MAX_LATENCY_NANOS / 1000.0);
+    }
+}
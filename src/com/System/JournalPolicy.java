@@ -0,0 +1,108 @@
+package com.System;
+
+/**
+ * JournalPolicy decides when journaled mutations are forced to disk.
+ * <p>
+ * Forcing after every mutation loses nothing on a crash but pays a disk flush per
+ * call, shared only by mutations arriving while one is in progress. The other
+ * policies batch records in memory and force them together, trading the last
+ * interval's or batch's records on a crash for throughput.
+ */
+public final class JournalPolicy {
+    /**
+     * When a batch is committed.
+     */
+    public enum Mode {
+        PER_OPERATION, // each mutation waits until it is durable
+        EVERY_MILLIS,  // a background thread commits on a fixed interval
+        EVERY_RECORDS  // the mutation that fills a batch commits it
+    }
+
+    private final Mode MODE;
+    private final long INTERVAL; // milliseconds or records, by mode
+
+    /**
+     * Constructs a JournalPolicy.
+     * @param mode when batches are committed
+     * @param interval milliseconds or records between commits
+     */
+    private JournalPolicy(Mode mode, long interval) {
+        this.MODE = mode;
+        this.INTERVAL = interval;
+    }
+
+    /**
+     * @return a policy making every mutation durable before it returns
+     */
+    public static JournalPolicy perOperation() {
+        return new JournalPolicy(Mode.PER_OPERATION, 1);
+    }
+
+    /**
+     * @param millis time between commits
+     * @return a policy committing whatever is pending on a fixed interval
+     * @throws IllegalArgumentException if millis is not positive
+     */
+    public static JournalPolicy everyMillis(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        return new JournalPolicy(Mode.EVERY_MILLIS, millis);
+    }
+
+    /**
+     * @param records records per batch
+     * @return a policy committing once a batch holds that many records
+     * @throws IllegalArgumentException if records is not positive
+     */
+    public static JournalPolicy everyRecords(int records) {
+        if (records <= 0) {
+            throw new IllegalArgumentException("batch size must be positive");
+        }
+        return new JournalPolicy(Mode.EVERY_RECORDS, records);
+    }
+
+    /**
+     * Parse a policy written as "op", "&lt;n&gt;ms" or "&lt;n&gt;records".
+     * @param text policy description
+     * @return the described policy
+     * @throws IllegalArgumentException if text is not a valid policy
+     */
+    public static JournalPolicy parse(String text) {
+        String t = text.trim().toLowerCase();
+        try {
+            if (t.equals("op")) return perOperation();
+            if (t.endsWith("ms")) return everyMillis(Long.parseLong(t.substring(0, t.length() - 2)));
+            if (t.endsWith("records")) return everyRecords(Integer.parseInt(t.substring(0, t.length() - 7)));
+        } catch (NumberFormatException e) {
+            // fall through to the common error
+        }
+        throw new IllegalArgumentException("durability must be \"op\", \"<n>ms\" or \"<n>records\": " + text);
+    }
+
+    /**
+     * @return when batches are committed
+     */
+    public Mode getMode() {
+        return MODE;
+    }
+
+    /**
+     * @return milliseconds between commits, records per batch, or 1 per operation
+     */
+    public long getInterval() {
+        return INTERVAL;
+    }
+
+    /**
+     * @return the policy in the form accepted by {@link #parse}
+     */
+    @Override
+    public String toString() {
+        return switch (MODE) {
+            case PER_OPERATION -> "op";
+            case EVERY_MILLIS -> INTERVAL + "ms";
+            case EVERY_RECORDS -> INTERVAL + "records";
+        };
+    }
+}
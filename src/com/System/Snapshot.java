@@ -0,0 +1,650 @@
+package com.System;
+
+import com.TradingCard.Binder;
+import com.TradingCard.Card;
+import com.TradingCard.CardCollection;
+import com.TradingCard.CardDefinition;
+import com.TradingCard.Deck;
+import com.TradingCard.MappedCardCollection;
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot is a point-in-time image of a whole inventory and its binary file format.
+ * <p>
+ * {@link #capture} copies only card definitions, counts and container contents, which
+ * is quick and leaves the inventory free to change while the image is encoded and
+ * written. The file holds a magic number and version, a name table with one entry per
+ * distinct card, each card's rarity and variation as single bytes, its base value as
+ * a fixed-point integer with a one-byte scale, and its count. Binders and decks refer
+ * to cards by position in the name table. A CRC-32C of everything before it closes
+ * the file.
+ * <p>
+ * A snapshot location holds a small pointer naming the current generation, a file
+ * beside it with the generation number appended. Each save writes a new generation
+ * and then moves a new pointer over the old one, so a reader never sees a partial
+ * snapshot, and a generation still mapped by {@link #open} is never written over,
+ * which some platforms refuse. Older generations are deleted once the pointer has
+ * moved on; one that cannot be deleted yet is retried on the next save. A location
+ * holding a snapshot itself, as written before generations, is still read.
+ * <p>
+ * Since version 2 the cards are in name order and an index follows the containers: a
+ * name hash table, the running totals, and the offset of each name, laid out as
+ * {@link MappedCardCollection} expects. A fixed footer before the checksum gives the
+ * offsets of the card records and the index, and the journal offset the snapshot is
+ * current to. {@link #open} maps such a file and reads cards only when asked for them.
+ */
+final class Snapshot {
+    private static final int MAGIC = 0x54435331; // "TCS1"
+    private static final short VERSION = 2;
+    private static final int HEADER_BYTES = 10;  // magic, version, number of cards
+    private static final int FOOTER_BYTES = 20;  // records offset, index offset, journal mark, checksum
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int POINTER_MAGIC = 0x54435350; // "TCSP"
+    private static final int POINTER_BYTES = 12;          // magic, generation
+
+    private static final Rarity[] RARITIES = Rarity.values();
+    private static final Variation[] VARIATIONS = Variation.values();
+
+    private final CardDefinition[] CARDS;       // distinct cards, in name order
+    private final int[] COUNTS;                 // copies of each card in the collection
+    private final ArrayList<Container> BINDERS; // in creation order
+    private final ArrayList<Container> DECKS;   // in creation order
+    private final long JOURNAL_MARK;            // journal offset the image is current to, 0 if none
+    private final MappedCardCollection MAPPED;  // the cards when mapped from a file, else null
+
+    /**
+     * A binder or deck: its name, capacity, and the cards it holds with their copies.
+     */
+    static final class Container {
+        private final String NAME;
+        private final int CAPACITY;
+        private final CardDefinition[] CARDS;
+        private final int[] COPIES; // copies of each card, always 1 in a deck
+
+        /**
+         * Constructs a Container.
+         * @param name binder or deck name
+         * @param capacity its capacity
+         * @param cards cards held
+         * @param copies copies of each card held
+         */
+        private Container(String name, int capacity, CardDefinition[] cards, int[] copies) {
+            this.NAME = name;
+            this.CAPACITY = capacity;
+            this.CARDS = cards;
+            this.COPIES = copies;
+        }
+
+        /**
+         * @return the binder or deck name
+         */
+        String getName() {
+            return NAME;
+        }
+
+        /**
+         * @return the binder or deck capacity
+         */
+        int getCapacity() {
+            return CAPACITY;
+        }
+
+        /**
+         * @return number of distinct cards held
+         */
+        int size() {
+            return CARDS.length;
+        }
+
+        /**
+         * @param i position of a card, below {@link #size()}
+         * @return the card at that position
+         */
+        CardDefinition getCard(int i) {
+            return CARDS[i];
+        }
+
+        /**
+         * @param i position of a card, below {@link #size()}
+         * @return copies held of the card at that position
+         */
+        int getCopies(int i) {
+            return COPIES[i];
+        }
+    }
+
+    /**
+     * Constructs a Snapshot.
+     * @param cards distinct cards, or null when mapped
+     * @param counts copies of each card in the collection, or null when mapped
+     * @param mapped the cards when mapped from a file, or null
+     * @param binders binder contents
+     * @param decks deck contents
+     * @param journalMark journal offset the image is current to
+     */
+    private Snapshot(CardDefinition[] cards, int[] counts, MappedCardCollection mapped,
+                     ArrayList<Container> binders, ArrayList<Container> decks, long journalMark) {
+        this.CARDS = cards;
+        this.COUNTS = counts;
+        this.MAPPED = mapped;
+        this.BINDERS = binders;
+        this.DECKS = decks;
+        this.JOURNAL_MARK = journalMark;
+    }
+
+    /**
+     * Copy the current state of an inventory. Definitions are immutable and shared, so
+     * only references and counts are copied.
+     * @param collection the main collection
+     * @param binders every binder
+     * @param decks every deck
+     * @param journalMark offset of the end of the journal, whose records are all in the image
+     * @return an image unaffected by later changes
+     */
+    static Snapshot capture(CardCollection collection, Collection<Binder> binders, Collection<Deck> decks,
+                            long journalMark) {
+        int n = collection.size();
+        CardDefinition[] cards = new CardDefinition[n];
+        int[] counts = new int[n];
+        int i = 0;
+        for (Card c : collection.getSortedView()) {
+            cards[i] = c.getDefinition();
+            counts[i++] = c.getCount();
+        }
+        ArrayList<Container> binderImages = new ArrayList<>(binders.size());
+        for (Binder b : binders) {
+            ArrayList<CardDefinition> held = new ArrayList<>();
+            int[] copies = new int[b.size()];
+            for (Card c : b.getSortedView()) { // name order, so copies of a card are adjacent
+                int last = held.size() - 1;
+                if (last >= 0 && held.get(last).equals(c.getDefinition())) {
+                    copies[last]++;
+                } else {
+                    held.add(c.getDefinition());
+                    copies[last + 1] = 1;
+                }
+            }
+            binderImages.add(new Container(b.getName(), b.getCapacity(),
+                    held.toArray(new CardDefinition[0]), Arrays.copyOf(copies, held.size())));
+        }
+        ArrayList<Container> deckImages = new ArrayList<>(decks.size());
+        for (Deck d : decks) {
+            CardDefinition[] held = new CardDefinition[d.size()];
+            int j = 0;
+            for (Card c : d.getView()) held[j++] = c.getDefinition();
+            int[] copies = new int[held.length];
+            Arrays.fill(copies, 1);
+            deckImages.add(new Container(d.getName(), d.getCapacity(), held, copies));
+        }
+        return new Snapshot(Arrays.copyOf(cards, i), Arrays.copyOf(counts, i), null,
+                binderImages, deckImages, journalMark);
+    }
+
+    /**
+     * @return the collection mapped from the file, or null if the image was read in full
+     */
+    MappedCardCollection getMapped() {
+        return MAPPED;
+    }
+
+    /**
+     * @return distinct cards of the collection, in name order, or null if mapped; not to be modified
+     */
+    CardDefinition[] getCards() {
+        return CARDS;
+    }
+
+    /**
+     * @return copies of each card in the collection, matching {@link #getCards()}, or null if mapped;
+     *         not to be modified
+     */
+    int[] getCounts() {
+        return COUNTS;
+    }
+
+    /**
+     * @return binder contents, in creation order
+     */
+    ArrayList<Container> getBinders() {
+        return BINDERS;
+    }
+
+    /**
+     * @return deck contents, in creation order
+     */
+    ArrayList<Container> getDecks() {
+        return DECKS;
+    }
+
+    /**
+     * @return journal offset the image is current to: records before it are already applied
+     */
+    long getJournalMark() {
+        return JOURNAL_MARK;
+    }
+
+    /**
+     * Encode this image as the next generation of a snapshot location and point the
+     * location at it, then delete the generations before it.
+     * @param path snapshot location
+     * @throws IOException if a file cannot be written, or a base value has too many digits
+     */
+    void write(Path path) throws IOException {
+        synchronized (Snapshot.class) { // generations are numbered from the pointer
+            long generation = Math.max(generationOf(path), 0) + 1;
+            writeFile(generationFile(path, generation));
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer pointer = ByteBuffer.allocate(POINTER_BYTES).putInt(POINTER_MAGIC).putLong(generation);
+                pointer.flip();
+                while (pointer.hasRemaining()) channel.write(pointer);
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteBefore(path, generation);
+        }
+    }
+
+    /**
+     * Encode this image and write it to a new file, moved into place once complete.
+     * @param path destination file, not mapped by any reader
+     * @throws IOException if the file cannot be written, or a base value has too many digits
+     */
+    private void writeFile(Path path) throws IOException {
+        // a card held in a container is always in the collection, but place any stray one anyway
+        HashMap<CardDefinition, Integer> index = new HashMap<>();
+        for (ArrayList<Container> group : Arrays.asList(BINDERS, DECKS)) {
+            for (Container c : group) {
+                for (CardDefinition def : c.CARDS) index.put(def, -1);
+            }
+        }
+        CardDefinition[] cards = CARDS;
+        int[] counts = COUNTS;
+        if (!index.isEmpty()) {
+            for (int i = 0; i < cards.length; i++) {
+                if (index.containsKey(cards[i])) index.put(cards[i], i);
+            }
+            int placed = cards.length;
+            for (CardDefinition def : index.keySet()) {
+                if (index.get(def) >= 0) continue;
+                cards = Arrays.copyOf(cards, cards.length + 1);
+                counts = Arrays.copyOf(counts, counts.length + 1); // held only, none on hand
+                cards[cards.length - 1] = def;
+            }
+            if (cards.length > placed) { // keep name order for the mapped reader
+                Integer[] order = new Integer[cards.length];
+                for (int i = 0; i < order.length; i++) order[i] = i;
+                CardDefinition[] unsorted = cards;
+                Arrays.sort(order, Comparator.comparing(i -> unsorted[i].getName()));
+                CardDefinition[] sortedCards = new CardDefinition[cards.length];
+                int[] sortedCounts = new int[cards.length];
+                for (int i = 0; i < order.length; i++) {
+                    sortedCards[i] = cards[order[i]];
+                    sortedCounts[i] = counts[order[i]];
+                }
+                cards = sortedCards;
+                counts = sortedCounts;
+            }
+            for (int i = 0; i < cards.length; i++) {
+                if (index.containsKey(cards[i])) index.put(cards[i], i);
+            }
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(cards.length);
+            int[] nameOffsets = new int[cards.length];
+            for (int i = 0; i < cards.length; i++) { // the name table
+                nameOffsets[i] = out.size();
+                writeString(out, cards[i].getName());
+            }
+            int recordsStart = out.size();
+            long[] copies = new long[RARITIES.length * VARIATIONS.length];     // running totals, rarity-major
+            long[] valueCents = new long[RARITIES.length * VARIATIONS.length];
+            int zeroCount = 0;
+            for (int i = 0; i < cards.length; i++) {
+                CardDefinition def = cards[i];
+                BigDecimal base = def.getBaseValue();
+                long unscaled;
+                try {
+                    unscaled = base.unscaledValue().longValueExact();
+                } catch (ArithmeticException e) {
+                    throw new IOException("base value of \"" + def.getName() + "\" has too many digits", e);
+                }
+                if (base.scale() < Byte.MIN_VALUE || base.scale() > Byte.MAX_VALUE) {
+                    throw new IOException("base value of \"" + def.getName() + "\" has too many digits");
+                }
+                out.writeByte(def.getRarity().ordinal());
+                out.writeByte(def.getVariation().ordinal());
+                out.writeByte(base.scale());
+                out.writeLong(unscaled);
+                out.writeInt(counts[i]);
+                int cell = def.getRarity().ordinal() * VARIATIONS.length + def.getVariation().ordinal();
+                copies[cell] += counts[i];
+                valueCents[cell] = Math.addExact(valueCents[cell], Math.multiplyExact(def.getValueCents(), (long) counts[i]));
+                if (counts[i] == 0) zeroCount++;
+            }
+            writeContainers(out, BINDERS, index);
+            writeContainers(out, DECKS, index);
+
+            int indexStart = out.size();
+            int[] table = MappedCardCollection.hashTable(cards);
+            out.writeInt(table.length);
+            for (int slot : table) out.writeInt(slot);
+            out.writeInt(zeroCount);
+            for (int cell = 0; cell < copies.length; cell++) {
+                out.writeLong(copies[cell]);
+                out.writeLong(valueCents[cell]);
+            }
+            for (int offset : nameOffsets) out.writeInt(offset);
+            boolean mappable = out.size() < Integer.MAX_VALUE - FOOTER_BYTES; // size() stops counting at 2 GiB
+            out.writeInt(mappable ? recordsStart : -1);
+            out.writeInt(mappable ? indexStart : -1);
+            out.writeLong(JOURNAL_MARK);
+            out.writeInt((int) checked.getChecksum().getValue()); // covers everything before it
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the current snapshot of a location in full, checking its version and checksum.
+     * @param path snapshot location
+     * @return the image it holds
+     * @throws IOException if the file cannot be read, is not a snapshot, or is damaged
+     */
+    static Snapshot read(Path path) throws IOException {
+        return readFile(current(path));
+    }
+
+    /**
+     * Read a snapshot file in full, checking its version and checksum.
+     */
+    private static Snapshot readFile(Path path) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_BYTES), new CRC32C())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not an inventory snapshot");
+            }
+            short version = in.readShort();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("unsupported snapshot version " + version);
+            }
+            int n = checkLength(in.readInt());
+            String[] names = new String[n];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < n; i++) {
+                int length = checkLength(in.readInt());
+                if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+                in.readFully(scratch, 0, length);
+                names[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            CardDefinition[] cards = new CardDefinition[n];
+            int[] counts = new int[n];
+            for (int i = 0; i < n; i++) {
+                int rarity = in.readUnsignedByte();
+                int variation = in.readUnsignedByte();
+                int scale = in.readByte();
+                long unscaled = in.readLong();
+                counts[i] = in.readInt();
+                if (rarity >= RARITIES.length || variation >= VARIATIONS.length || counts[i] < 0) {
+                    throw new IOException("snapshot card " + i + " is damaged");
+                }
+                cards[i] = CardDefinition.fromStorage(names[i], RARITIES[rarity], VARIATIONS[variation],
+                        BigDecimal.valueOf(unscaled, scale));
+            }
+            ArrayList<Container> binders = readContainers(in, cards);
+            ArrayList<Container> decks = readContainers(in, cards);
+            long journalMark = 0;
+            if (version >= 2) { // the index only serves the mapped reader, but is checked with the rest
+                int tableSize = checkLength(in.readInt());
+                in.skipNBytes(4L * tableSize + 4 + 16L * RARITIES.length * VARIATIONS.length + 4L * n + 8);
+                journalMark = in.readLong();
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) {
+                throw new IOException(path + " is damaged: checksum mismatch");
+            }
+            return new Snapshot(cards, counts, null, binders, decks, journalMark);
+        } catch (EOFException e) {
+            throw new IOException(path + " is damaged: ends early", e);
+        }
+    }
+
+    /**
+     * Open the current snapshot of a location, mapping it into memory when its format allows
+     * so that only its containers are read now and cards are read when asked for. Other
+     * files are read in full.
+     * <p>
+     * The checksum of a mapped file is not verified, since that would read every page;
+     * damage shows up only as odd cards or exceptions when the damaged part is read.
+     * @param location snapshot location
+     * @return the image it holds, mapped if possible
+     * @throws IOException if the file cannot be read, is not a snapshot, or is visibly damaged
+     */
+    static Snapshot open(Path location) throws IOException {
+        Path path = current(location);
+        MappedByteBuffer file;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE || size < HEADER_BYTES + FOOTER_BYTES) return readFile(path);
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // stays valid after close
+        }
+        if (file.getInt(0) != MAGIC || file.getShort(4) != VERSION) return readFile(path);
+        int n = file.getInt(6);
+        int footer = file.limit() - FOOTER_BYTES;
+        int records = file.getInt(footer);
+        int index = file.getInt(footer + 4);
+        if (records < 0 || index < 0) return readFile(path); // too large to address
+        if (n < 0 || records < HEADER_BYTES || (long) records + (long) n * MappedCardCollection.RECORD_BYTES > index
+                || index >= footer) {
+            throw new IOException(path + " is damaged: bad offsets");
+        }
+        MappedCardCollection mapped = new MappedCardCollection(file, n, records, index);
+        ByteBuffer in = file.duplicate().position(records + n * MappedCardCollection.RECORD_BYTES);
+        try {
+            ArrayList<Container> binders = readContainers(in, mapped, n);
+            ArrayList<Container> decks = readContainers(in, mapped, n);
+            return new Snapshot(null, null, mapped, binders, decks, file.getLong(footer + 8));
+        } catch (RuntimeException e) {
+            throw new IOException(path + " is damaged: " + e, e);
+        }
+    }
+
+    /**
+     * @param path snapshot location
+     * @return the file holding its current snapshot: the generation its pointer names, or
+     *         the location itself if it holds a snapshot or nothing
+     * @throws IOException if the pointer names a generation that is missing
+     */
+    private static Path current(Path path) throws IOException {
+        long generation = generationOf(path);
+        if (generation <= 0) return path;
+        Path file = generationFile(path, generation);
+        if (!Files.exists(file)) {
+            throw new IOException(path + " is damaged: names missing snapshot " + file.getFileName());
+        }
+        return file;
+    }
+
+    /**
+     * @param path snapshot location
+     * @return generation its pointer names, 0 if there is no file, or -1 if it is not a pointer
+     */
+    private static long generationOf(Path path) throws IOException {
+        if (!Files.exists(path)) return 0;
+        if (Files.size(path) != POINTER_BYTES) return -1; // a snapshot is always larger
+        ByteBuffer pointer = ByteBuffer.wrap(Files.readAllBytes(path));
+        return pointer.getInt() == POINTER_MAGIC ? pointer.getLong() : -1;
+    }
+
+    /**
+     * @return the file holding one generation of a snapshot location
+     */
+    private static Path generationFile(Path path, long generation) {
+        return path.resolveSibling(path.getFileName() + "." + generation);
+    }
+
+    /**
+     * Delete the generations of a location before the given one. A file that cannot be
+     * deleted, such as one still mapped on a platform that forbids that, is left for the
+     * next save.
+     */
+    private static void deleteBefore(Path path, long generation) {
+        Path dir = path.toAbsolutePath().getParent();
+        String prefix = path.getFileName() + ".";
+        DirectoryStream.Filter<Path> ours = entry -> entry.getFileName().toString().startsWith(prefix);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, ours)) {
+            for (Path file : files) {
+                long older;
+                try {
+                    older = Long.parseLong(file.getFileName().toString().substring(prefix.length()));
+                } catch (NumberFormatException e) {
+                    continue; // the pointer's temp file, or not ours
+                }
+                if (older < generation) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // still in use; the next save tries again
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // the new generation is in place either way
+        }
+    }
+
+    /**
+     * Write containers as name, capacity, and card positions with copies.
+     */
+    private static void writeContainers(DataOutputStream out, ArrayList<Container> containers,
+                                        HashMap<CardDefinition, Integer> index) throws IOException {
+        out.writeInt(containers.size());
+        for (Container c : containers) {
+            writeString(out, c.NAME);
+            out.writeInt(c.CAPACITY);
+            out.writeInt(c.CARDS.length);
+            for (int i = 0; i < c.CARDS.length; i++) {
+                out.writeInt(index.get(c.CARDS[i]));
+                out.writeInt(c.COPIES[i]);
+            }
+        }
+    }
+
+    /**
+     * Read containers written by {@link #writeContainers}.
+     */
+    private static ArrayList<Container> readContainers(DataInputStream in, CardDefinition[] cards) throws IOException {
+        int n = checkLength(in.readInt());
+        ArrayList<Container> containers = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String name = readString(in);
+            int capacity = in.readInt();
+            int size = checkLength(in.readInt());
+            CardDefinition[] held = new CardDefinition[size];
+            int[] copies = new int[size];
+            for (int j = 0; j < size; j++) {
+                int card = in.readInt();
+                copies[j] = in.readInt();
+                if (card < 0 || card >= cards.length || copies[j] <= 0) {
+                    throw new IOException("snapshot container \"" + name + "\" is damaged");
+                }
+                held[j] = cards[card];
+            }
+            containers.add(new Container(name, capacity, held, copies));
+        }
+        return containers;
+    }
+
+    /**
+     * Read containers written by {@link #writeContainers} from a mapped file.
+     */
+    private static ArrayList<Container> readContainers(ByteBuffer in, MappedCardCollection cards, int n)
+            throws IOException {
+        int count = checkLength(in.getInt());
+        ArrayList<Container> containers = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            byte[] nameBytes = new byte[checkLength(in.getInt())];
+            in.get(nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+            int capacity = in.getInt();
+            int size = checkLength(in.getInt());
+            CardDefinition[] held = new CardDefinition[size];
+            int[] copies = new int[size];
+            for (int j = 0; j < size; j++) {
+                int card = in.getInt();
+                copies[j] = in.getInt();
+                if (card < 0 || card >= n || copies[j] <= 0) {
+                    throw new IOException("snapshot container \"" + name + "\" is damaged");
+                }
+                held[j] = cards.definitionAt(card);
+            }
+            containers.add(new Container(name, capacity, held, copies));
+        }
+        return containers;
+    }
+
+    /**
+     * Write a length-prefixed UTF-8 string.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a length-prefixed UTF-8 string.
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[checkLength(in.readInt())];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @throws IOException if a stored length is negative, which only damage produces
+     */
+    private static int checkLength(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("snapshot is damaged: negative length");
+        }
+        return length;
+    }
+}
@@ -12,6 +12,8 @@ import java.util.*;
  * prompts the user for input. Does not contain any business logic.
  */
 public class View {
+    private static final int IMPORT_ERRORS_SHOWN = 20; // rejected rows listed after an import
+
     private final Scanner SC;
 
     /**
@@ -23,9 +25,9 @@ public class View {
 
     /**
      * Display the list of deck names.
-     * @param names list of deck names to show
+     * @param names deck names to show
      */
-    public void showDeckNames(ArrayList<String> names) {
+    public void showDeckNames(Iterable<String> names) {
         System.out.println("\n=== decks ===");
         for (String name : names) {
             System.out.println("  - " + name); // prefix for readability
@@ -34,9 +36,9 @@ public class View {
 
     /**
      * Display the list of binder names.
-     * @param names list of binder names to show
+     * @param names binder names to show
      */
-    public void showBinderNames(ArrayList<String> names) {
+    public void showBinderNames(Iterable<String> names) {
         System.out.println("\n=== binders ===");
         for (String name : names) {
             System.out.println("  - " + name);
@@ -76,11 +78,87 @@ public class View {
      * @param c the CardCollection to display
      */
     public void showCollection(CardCollection c) {
-        ArrayList<Card> cards = c.getSortedCopy();
         System.out.println("\n=== collection ===");
-        for (Card card : cards) {
+        for (Card card : c.getSortedView()) { // already name-ordered, no copy or sort
+            System.out.println("  - card: " + card.getName() + ", count: " + card.getCount());
+        }
+    }
+
+    /**
+     * Display one page of the card collection with counts.
+     * @param page the page to display
+     */
+    public void showCollectionPage(CardPage page) {
+        System.out.printf("%n=== collection (by %s) ===%n", page.getOrder().name().toLowerCase());
+        if (page.hasPrevious()) System.out.println("  ...");
+        for (Card card : page.getCards()) {
             System.out.println("  - card: " + card.getName() + ", count: " + card.getCount());
         }
+        if (page.hasNext()) System.out.println("  ...");
+    }
+
+    /**
+     * Display the cards matched by a search or filter.
+     * @param title heading describing the query
+     * @param results matching cards, in display order
+     */
+    public void showMatches(String title, ArrayList<Card> results) {
+        System.out.printf("%n=== %s ===%n", title);
+        if (results.isEmpty()) {
+            System.out.println("  no matching cards");
+        }
+        for (Card card : results) {
+            System.out.println("  - card: " + card.getName() + ", count: " + card.getCount()
+                    + ", value: $" + card.getValue());
+        }
+    }
+
+    /**
+     * Display where copies of a card are kept.
+     * @param c the card located, as held in the collection
+     * @param locations binders and decks holding copies
+     */
+    public void showLocations(Card c, ArrayList<CardLocation> locations) {
+        System.out.printf("%n=== locations: %s ===%n", c.getName());
+        System.out.println("  - collection (" + c.getCount() + (c.getCount() == 1 ? " copy)" : " copies)"));
+        for (CardLocation location : locations) {
+            System.out.println("  - " + location);
+        }
+    }
+
+    /**
+     * Display copy and value totals for the collection, binders, decks and overall.
+     * @param stats the inventory statistics to show
+     */
+    public void showStatistics(InventoryStatistics stats) {
+        System.out.println("\n=== statistics: collection ===\n" + stats.getCollection());
+        System.out.println("\n=== statistics: binders ===\n" + stats.getBinders());
+        System.out.println("\n=== statistics: decks ===\n" + stats.getDecks());
+        System.out.println("\n=== statistics: overall ===\n" + stats.getOverall());
+    }
+
+    /**
+     * Display journal throughput and commit latency.
+     * @param metrics figures of the open journal
+     */
+    public void showJournalMetrics(JournalMetrics metrics) {
+        System.out.println("\n=== journal ===\n" + metrics);
+    }
+
+    /**
+     * Display the outcome of an import and the first rejected rows.
+     * @param report the import's outcome
+     */
+    public void showImportReport(ImportReport report) {
+        System.out.println("\n=== import ===\n" + report);
+        int shown = 0;
+        for (ImportReport.RowError error : report.getErrors()) {
+            if (shown++ == IMPORT_ERRORS_SHOWN) break;
+            System.out.println("  " + error);
+        }
+        if (report.getRejected() > IMPORT_ERRORS_SHOWN) {
+            System.out.printf("  ... and %d more rejected rows%n", report.getRejected() - IMPORT_ERRORS_SHOWN);
+        }
     }
 
     /**
@@ -88,10 +166,9 @@ public class View {
      * @param d the Deck to display
      */
     public void showDeck(Deck d) {
-        ArrayList<Card> cards = d.getCopyOfCards();
         System.out.printf("%n=== deck: %s ===%n", d.getName());
         int i = 1;
-        for (Card card : cards) {
+        for (Card card : d.getView()) {
             System.out.printf("  %d) %s%n", i++, card.getName());
         }
     }
@@ -101,9 +178,8 @@ public class View {
      * @param b the Binder to display
      */
     public void showBinder(Binder b) {
-        ArrayList<Card> cards = b.getSortedCopy();
         System.out.printf("%n=== binder: %s ===%n", b.getName());
-        for (Card card : cards) {
+        for (Card card : b.getSortedView()) {
             System.out.println(card.getName());
         }
     }
@@ -118,6 +194,7 @@ public class View {
         System.out.println("\n=== main menu ===");
         int opt = 1;
         System.out.printf("%d. add a card%n", opt++);
+        System.out.printf("%d. import cards from a file%n", opt++);
         // binder option
         if (!hasBinders) System.out.printf("%d. create a new binder%n", opt++);
         else System.out.printf("%d. manage binders%n", opt++);
@@ -139,7 +216,8 @@ public class View {
         System.out.printf("%n=== manage binder ===%n");
         System.out.printf("%d. create new binder%n", 1);
         System.out.printf("%d. view existing binder%n", 2);
-        System.out.printf("%d. back to main menu%n", 3);
+        System.out.printf("%d. delete several binders%n", 3);
+        System.out.printf("%d. back to main menu%n", 4);
     }
 
     /**
@@ -149,7 +227,8 @@ public class View {
         System.out.printf("%n=== manage deck ===%n");
         System.out.printf("%d. create new deck%n", 1);
         System.out.printf("%d. view existing deck%n", 2);
-        System.out.printf("%d. back to main menu%n", 3);
+        System.out.printf("%d. delete several decks%n", 3);
+        System.out.printf("%d. back to main menu%n", 4);
     }
 
     /**
@@ -193,6 +272,17 @@ public class View {
     public void showCollectionOptions() {
         int option = 1;
         System.out.printf("%d. view a specific card%n", option++);
+        System.out.printf("%d. search cards by name%n", option++);
+        System.out.printf("%d. filter by rarity/variation%n", option++);
+        System.out.printf("%d. find cards by value range%n", option++);
+        System.out.printf("%d. show most valuable cards%n", option++);
+        System.out.printf("%d. locate a card%n", option++);
+        System.out.printf("%d. show statistics%n", option++);
+        System.out.printf("%d. next page%n", option++);
+        System.out.printf("%d. previous page%n", option++);
+        System.out.printf("%d. jump to name%n", option++);
+        System.out.printf("%d. change page order%n", option++);
+        System.out.printf("%d. purge cards with no copies%n", option++);
         System.out.printf("%d. back%n", option);
     }
 
@@ -1,31 +1,63 @@
 package com.TradingCard;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Binder holds up to a fixed number of cards for trading purposes.
+ * Binder holds up to a set number of cards for trading purposes.
  * <p>
  * Supports adding cards, removing by name or clearing all cards,
- * and retrieving a sorted view of contained cards.
+ * and retrieving a sorted view of contained cards. Like {@link CardCollection},
+ * each distinct card is stored once with a count of the copies held, so memory
+ * and lookups scale with distinct cards rather than copies. Callers still see
+ * individual copies: removals hand back one card per copy.
  */
 public class Binder {
-    private static final int MAX_CAPACITY = 20;  // maximum slots in a binder
+    public static final int DEFAULT_CAPACITY = 20; // slots in a standard binder
 
-    private final String NAME;                  // binder's unique name
-    private final ArrayList<Card> CARDS;       // internal list of cards
+    private final String NAME;                      // binder's unique name
+    private final int CAPACITY;                     // maximum slots in this binder
+    private final TreeMap<String, Card> CARDS;      // card name -> entry counting its copies, kept sorted
+    private final HashMap<String, Card> INDEX;      // normalized name -> the same entries
+    private int size;                               // copies held across all entries
+    private final RunningStatistics STATS;          // totals kept in step with every copy added or removed
 
     /**
-     * Constructs a Binder with the given name.
+     * Constructs a Binder with the given name and the default capacity.
      * @param name non-null, non-blank name for this binder
      * @throws IllegalArgumentException if name is null or blank
      */
     public Binder(String name) {
+        this(name, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a Binder with the given name and capacity.
+     * @param name non-null, non-blank name for this binder
+     * @param capacity maximum number of cards this binder holds
+     * @throws IllegalArgumentException if name is null or blank, or capacity is not positive
+     */
+    public Binder(String name, int capacity) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("name cannot be empty");
         }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
         this.NAME = name.trim();
-        this.CARDS = new ArrayList<>(); // initialize empty card list
+        this.CAPACITY = capacity;
+        this.CARDS = new TreeMap<>(); // initialize empty card storage
+        this.INDEX = new HashMap<>();
+        this.STATS = new RunningStatistics();
     }
 
     /**
@@ -35,68 +67,260 @@ public class Binder {
         return NAME;
     }
 
+    /**
+     * @return the maximum number of cards this binder holds
+     */
+    public int getCapacity() {
+        return CAPACITY;
+    }
+
     /**
      * Find a card in this binder by name.
      * @param name case-insensitive name to search
-     * @return the matching Card, or null if not found
+     * @return a single copy of the matching card, or null if not found
      */
     public Card findByCardName(String name) {
-        for (Card card : this.CARDS) {
-            if (card.getName().equalsIgnoreCase(name))
-                return card;
-        }
-        return null;
+        Card entry = this.INDEX.get(Card.normalizeName(name));
+        return entry == null ? null : new Card(entry.getDefinition());
+    }
+
+    /**
+     * Number of copies of a card held in this binder.
+     * @param name case-insensitive name to search
+     * @return copies held, or 0 if not found
+     */
+    public int getCopyCount(String name) {
+        Card entry = this.INDEX.get(Card.normalizeName(name));
+        return entry == null ? 0 : entry.getCount();
+    }
+
+    /**
+     * Snapshot of copy and value totals, read from the running totals without scanning.
+     * @return current statistics of this binder
+     */
+    public CardStatistics getStatistics() {
+        return this.STATS.snapshot();
     }
 
     /**
-     * Add a card to this binder if capacity allows.
+     * Add one copy of a card to this binder if capacity allows.
      * @param card the Card to add
      * @return true if added, false if binder is full
+     * @throws IllegalArgumentException if a card with same name but different attributes is held
      */
     public boolean addCard(Card card) {
-        if (this.CARDS.size() >= MAX_CAPACITY) {
+        if (this.size >= CAPACITY) {
             return false; // full, cannot add
         }
-        return this.CARDS.add(card);
+        this.STATS.checkAdd(card.getValueCents()); // before anything changes
+        Card entry = this.INDEX.get(card.getKey());
+        if (entry == null) {
+            entry = new Card(card.getDefinition(), 0); // private entry, never handed out
+            this.INDEX.put(card.getKey(), entry);
+            this.CARDS.put(card.getName(), entry);
+        } else if (!entry.getDefinition().equals(card.getDefinition())) {
+            throw new IllegalArgumentException("card with same name but different attributes exists.");
+        }
+        entry.incrementCount();
+        this.size++;
+        this.STATS.record(entry, 1);
+        return true;
     }
 
     /**
      * Remove and return all cards from this binder.
      * Clears the binder's contents.
-     * @return a new list containing all removed cards
+     * @return a new list containing one card per removed copy
      */
     public ArrayList<Card> removeAllCards() {
-        ArrayList<Card> cards = new ArrayList<>(this.CARDS);
-        this.CARDS.clear(); // empty binder
+        ArrayList<Card> cards = getSortedCopy();
+        clear();
         return cards;
     }
 
     /**
-     * Remove a specific card by name.
+     * Remove all cards from this binder without returning them.
+     * Callers that need the cards read {@link #getSortedView()} first.
+     */
+    public void clear() {
+        this.CARDS.clear(); // empty binder
+        this.INDEX.clear();
+        this.size = 0;
+        this.STATS.clear();
+    }
+
+    /**
+     * @return number of cards held, counting every copy
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true if this binder holds no cards
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Remove one copy of a specific card by name.
      * @param name case-insensitive name of card to remove
-     * @return the removed Card instance
+     * @return the removed copy
      * @throws IllegalStateException if binder is empty
      * @throws IllegalArgumentException if card not found
      */
     public Card removeCardByName(String name) {
-        if (this.CARDS.isEmpty()) {
+        if (this.size == 0) {
             throw new IllegalStateException("binder is empty");
         }
-        Card target = findByCardName(name);
-        if (target == null) {
+        Card entry = this.INDEX.get(Card.normalizeName(name));
+        if (entry == null) {
             throw new IllegalArgumentException("card \"" + name + "\" not found in binder.");
         }
-        this.CARDS.remove(target); // remove first match
-        return target;
+        entry.decrementCount();
+        if (entry.getCount() == 0) { // last copy gone, drop the entry
+            this.INDEX.remove(entry.getKey());
+            this.CARDS.remove(entry.getName());
+        }
+        this.size--;
+        this.STATS.record(entry, -1);
+        return new Card(entry.getDefinition());
     }
 
     /**
-     * Get a sorted copy of the cards in this binder by card name.
+     * Get a sorted copy of the cards in this binder by card name, one card per copy.
+     * Storage is already ordered, so this is a linear expansion with no sorting.
      * @return new list sorted alphabetically
      */
     public ArrayList<Card> getSortedCopy() {
-        ArrayList<Card> sortedCopy = new ArrayList<>(this.CARDS);
-        sortedCopy.sort(Comparator.comparing(Card::getName));
+        ArrayList<Card> sortedCopy = new ArrayList<>(this.size);
+        for (Card entry : this.CARDS.values()) {
+            for (int i = 0; i < entry.getCount(); i++) {
+                sortedCopy.add(new Card(entry.getDefinition()));
+            }
+        }
         return sortedCopy;
     }
+
+    /**
+     * Spliterator over the cards in this binder by card name, one card per copy.
+     * Splits divide the name-ordered entries, so no copy of the binder is made;
+     * the binder must not be modified while it is in use.
+     * @return an ordered spliterator of cards
+     */
+    public Spliterator<Card> spliterator() {
+        return new CopySpliterator(this.CARDS.values().spliterator(), this.size);
+    }
+
+    /**
+     * @return a sequential stream of the cards in name order, one card per copy
+     */
+    public Stream<Card> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a possibly parallel stream of the cards in name order, one card per copy
+     */
+    public Stream<Card> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Expands counted entries into one card per copy while splitting on entry boundaries.
+     */
+    private static final class CopySpliterator implements Spliterator<Card> {
+        private final Spliterator<Card> ENTRIES; // entries not yet started
+        private long estimate;                   // copies expected to remain
+        private Card current = null;             // entry whose copies are being produced
+        private int remaining = 0;               // copies of current still to produce
+
+        private CopySpliterator(Spliterator<Card> entries, long estimate) {
+            this.ENTRIES = entries;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Card> action) {
+            while (remaining == 0) {
+                if (!ENTRIES.tryAdvance(e -> { current = e; remaining = e.getCount(); })) return false;
+            }
+            remaining--;
+            if (estimate > 0) estimate--;
+            action.accept(new Card(current.getDefinition()));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Card> trySplit() {
+            if (remaining > 0) return null; // a started entry must finish before the entries it precedes
+            Spliterator<Card> prefix = ENTRIES.trySplit(); // the unstarted entries before ours
+            if (prefix == null) return null;
+            long half = estimate >>> 1;
+            estimate -= half;
+            return new CopySpliterator(prefix, half);
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * Get the cards in this binder by card name, one per distinct card rather than per copy.
+     * @return new list of detached cards, each counting the copies held
+     */
+    public ArrayList<Card> getEntryCopy() {
+        ArrayList<Card> entries = new ArrayList<>(this.CARDS.size());
+        for (Card entry : this.CARDS.values()) {
+            entries.add(new Card(entry.getDefinition(), entry.getCount()));
+        }
+        return entries;
+    }
+
+    /**
+     * Get a read-only view of the cards in this binder by card name, without copying.
+     * Each copy appears once; the view reflects later changes to the binder.
+     * @return unmodifiable alphabetical view of the cards
+     */
+    public Collection<Card> getSortedView() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Card> iterator() {
+                Iterator<Card> entries = CARDS.values().iterator();
+                return new Iterator<>() {
+                    private Card current = null; // entry whose copies are being produced
+                    private int remaining = 0;   // copies of current still to produce
+
+                    @Override
+                    public boolean hasNext() {
+                        while (remaining == 0 && entries.hasNext()) {
+                            current = entries.next();
+                            remaining = current.getCount();
+                        }
+                        return remaining > 0;
+                    }
+
+                    @Override
+                    public Card next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        remaining--;
+                        return new Card(current.getDefinition());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
 }
@@ -2,20 +2,16 @@ package com.TradingCard;
 
 import com.TradingCard.Enums.*;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.Objects;
 
 /**
  * Represents a trading card with a NAME, RARITY, VARIATION, base value, and count.
  * <p>
  * Provides methods to compute current market value based on VARIATION and to
- * manage the count of copies in the collection.
+ * manage the count of copies in the collection. The immutable attributes live in a
+ * shared {@link CardDefinition}, so a Card itself is only a reference plus a count.
  */
 public class Card {
-    private final String NAME;
-    private final Rarity RARITY;
-    private final Variation VARIATION;
-    private final BigDecimal BASE_VALUE;
+    private final CardDefinition DEFINITION; // shared, interned card identity
     private int count;
 
     /**
@@ -27,42 +23,77 @@ public class Card {
      * @throws IllegalArgumentException if NAME is null or blank
      */
     public Card(String n, Rarity r, Variation v, BigDecimal val) {
-        if (n == null || n.trim().isEmpty()) {
-            throw new IllegalArgumentException("NAME cannot be empty");
-        }
-        this.NAME = n.trim();
-        this.RARITY = r;
-        this.VARIATION = v;
-        this.BASE_VALUE = val;
-        this.count = 1; // initial copy count
+        this(CardDefinition.of(n, r, v, val));
+    }
+
+    /**
+     * Constructs a Card for an existing definition with an initial count of 1.
+     * @param definition the shared card identity
+     */
+    public Card(CardDefinition definition) {
+        this(definition, 1); // initial copy count
+    }
+
+    /**
+     * Constructs a Card for an existing definition with the given count.
+     * Used by storage modes that rebuild Card objects from stored counts.
+     * @param definition the shared card identity
+     * @param count number of copies
+     */
+    Card(CardDefinition definition, int count) {
+        this.DEFINITION = definition;
+        this.count = count;
+    }
+
+    /**
+     * Normalize a card name into the key used for case-insensitive lookups.
+     * @param name raw card name
+     * @return trimmed, lowercase key
+     */
+    public static String normalizeName(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * @return the shared definition holding this card's immutable attributes
+     */
+    public CardDefinition getDefinition() {
+        return DEFINITION;
     }
 
     /**
      * @return the RARITY of this card
      */
     public Rarity getRarity() {
-        return RARITY;
+        return DEFINITION.getRarity();
     }
 
     /**
      * @return the VARIATION of this card
      */
     public Variation getVariation() {
-        return VARIATION;
+        return DEFINITION.getVariation();
     }
 
     /**
      * @return the NAME of this card
      */
     public String getName() {
-        return NAME;
+        return DEFINITION.getName();
+    }
+
+    /**
+     * @return the normalized (trimmed, lowercase) NAME used for lookups
+     */
+    public String getKey() {
+        return DEFINITION.getKey();
     }
 
     /**
      * @return the base monetary value of this card
      */
     public BigDecimal getBaseValue() {
-        return this.BASE_VALUE;
+        return DEFINITION.getBaseValue();
     }
 
     /**
@@ -73,20 +104,21 @@ public class Card {
     }
 
     /**
-     * Calculates the market value of the card based on its VARIATION multiplier.
+     * Market value of the card based on its VARIATION multiplier, in cents.
+     * Rounded HALF_UP to two decimal places.
+     * @return adjusted value in cents
+     */
+    public long getValueCents() {
+        return DEFINITION.getValueCents();
+    }
+
+    /**
+     * Market value of the card based on its VARIATION multiplier.
      * The result is rounded to two decimal places.
      * @return adjusted value according to VARIATION
      */
     public BigDecimal getValue() {
-        BigDecimal multiplier;
-        switch (VARIATION) {
-            case EXTENDED_ART -> multiplier = BigDecimal.valueOf(1.5);
-            case FULL_ART     -> multiplier = BigDecimal.valueOf(2.0);
-            case ALT_ART      -> multiplier = BigDecimal.valueOf(3.0);
-            default           -> multiplier = BigDecimal.valueOf(1.0);
-        }
-        BigDecimal value = multiplier.multiply(getBaseValue());
-        return value.setScale(2, RoundingMode.HALF_UP);
+        return DEFINITION.getValue();
     }
 
     /**
@@ -96,6 +128,16 @@ public class Card {
         this.count++;
     }
 
+    /**
+     * Adds several copies to the count at once.
+     * Used by collections merging a batch of returned copies.
+     * @param copies number of copies to add (non-negative)
+     * @throws ArithmeticException if the count overflows
+     */
+    void addCount(int copies) {
+        this.count = Math.addExact(this.count, copies);
+    }
+
     /**
      * Decrements the count of this card by one, not falling below zero.
      */
@@ -105,12 +147,13 @@ public class Card {
 
     /**
      * Creates a shallow copy of the given card with count reset to 1.
+     * The copy shares the original's definition, so no attributes are duplicated.
      * @param c the card to copy
      * @return a new Card instance with identical attributes (count=1), or null if c is null
      */
     public static Card copyCard(Card c) {
         if (c != null) {
-            return new Card(c.getName(), c.getRarity(), c.getVariation(), c.getBaseValue());
+            return new Card(c.DEFINITION);
         }
         return null;
     }
@@ -120,11 +163,11 @@ public class Card {
      */
     @Override
     public String toString() {
-        return "Name: " + NAME +
-                " | Rarity: " + RARITY +
-                " | Variation: " + VARIATION +
+        return "Name: " + getName() +
+                " | Rarity: " + getRarity() +
+                " | Variation: " + getVariation() +
                 " | Count: " + count +
-                " | Value: $" + getValue();
+                " | Value: $" + Money.format(getValueCents());
     }
 
     /**
@@ -136,17 +179,20 @@ public class Card {
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (!(obj instanceof Card other)) return false;
-        return this.NAME.equalsIgnoreCase(other.NAME)
-                && this.RARITY == other.RARITY
-                && this.VARIATION == other.VARIATION;
+        CardDefinition a = this.DEFINITION, b = other.DEFINITION;
+        if (a == b) return true; // same interned definition
+        return a.getCardHash() == b.getCardHash() // cheap reject before comparing keys
+                && a.getKey().equals(b.getKey())
+                && a.getRarity() == b.getRarity()
+                && a.getVariation() == b.getVariation();
     }
 
     /**
      * Hash code consistent with equals, using lowercase NAME, RARITY, and VARIATION.
-     * @return computed hash code
+     * @return hash code computed once by the definition
      */
     @Override
     public int hashCode() {
-        return Objects.hash(NAME.toLowerCase(), RARITY, VARIATION);
+        return DEFINITION.getCardHash();
     }
 }
@@ -1,41 +1,150 @@
 package com.TradingCard;
 
-import java.util.Comparator;
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.NavigableMap;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * CardCollection manages the main pool of trading cards.
  * <p>
  * Supports adding, removing, searching, and adjusting counts of cards,
- * while preserving unique card attributes and copy counts.
+ * while preserving unique card attributes and copy counts. Each unique card keeps
+ * its entry even when its count drops to zero, until {@link #compact} purges it.
+ * <p>
+ * Storage is left to subclasses: {@link IndexedCardCollection} keeps Card objects
+ * with secondary indexes, {@link ColumnarCardCollection} keeps primitive columns,
+ * and {@link OffHeapCardCollection} keeps records outside the Java heap. The latter
+ * two answer queries by scanning their storage.
  */
-public class CardCollection {
-    private final ArrayList<Card> CARDS;
+public abstract class CardCollection {
+    private final RunningStatistics STATS = new RunningStatistics(); // totals kept in step with every count change
 
     /**
-     * Constructs an empty CardCollection.
+     * Add a card or increment count if identical card exists.
+     * @param c Card to add or increment
+     * @throws IllegalArgumentException if a card with same name but different attributes exists
      */
-    public CardCollection(){
-        this.CARDS = new ArrayList<>(); // initialize list storage
+    public abstract void addCard(Card c);
+
+    /**
+     * Merge a batch of cards, each standing for one copy, in a single pass.
+     * <p>
+     * Cards are grouped by name first, so every distinct card is looked up once and
+     * its count raised by the number of copies in the batch. The whole batch is
+     * checked before anything changes, so a conflict leaves the collection untouched.
+     * @param cards cards to merge; null entries are skipped
+     * @throws IllegalArgumentException if a card conflicts with the collection or the batch
+     *         (same name but different attributes)
+     */
+    public void addCards(Collection<Card> cards) {
+        LinkedHashMap<String, Card> groups = new LinkedHashMap<>(); // key -> one card per name, counting its copies
+        for (Card c : cards) {
+            if (c != null) group(groups, c, 1);
+        }
+        mergeGroups(groups);
     }
 
     /**
-     * Add a card or increment count if identical card exists.
-     * @param c Card to add or increment
-     * @throws IllegalArgumentException if a card with same name but different attributes exists
+     * Merge a batch of cards, each standing for as many copies as its count, in a single
+     * pass. Cards leaving a container that stores counted entries come back this way,
+     * without one Card per copy. Checked as a whole, as {@link #addCards} is.
+     * @param cards cards to merge, each with its number of copies; null entries are skipped
+     * @throws IllegalArgumentException if a card conflicts with the collection or the batch
+     *         (same name but different attributes)
+     */
+    public void addCountedCards(Collection<Card> cards) {
+        LinkedHashMap<String, Card> groups = new LinkedHashMap<>();
+        for (Card c : cards) {
+            if (c != null && c.getCount() > 0) group(groups, c, c.getCount());
+        }
+        mergeGroups(groups);
+    }
+
+    /**
+     * Count copies of a card into its group, creating the group on first sight.
+     * @throws IllegalArgumentException if the group holds a different card of the same name
      */
-    public void addCard(Card c){
-        Card existing = findByCardName(c.getName());
-        if (existing == null) {
-            CARDS.add(c); // new unique card
-        } else if (existing.equals(c)) {
-            existing.incrementCount(); // same card, increase count
+    private static void group(LinkedHashMap<String, Card> groups, Card c, int copies) {
+        Card group = groups.get(c.getKey());
+        if (group == null) {
+            groups.put(c.getKey(), new Card(c.getDefinition(), copies));
+        } else if (group.equals(c)) {
+            group.addCount(copies);
         } else {
             throw new IllegalArgumentException("card with same name but different attributes exists.");
         }
     }
 
+    /**
+     * Check grouped copies against the collection, then add every group.
+     * @param groups key -> card counting the copies to add, owned by this call
+     */
+    private void mergeGroups(LinkedHashMap<String, Card> groups) {
+        long value = 0; // the whole batch is checked, so it is added in full or not at all
+        for (Card group : groups.values()) {
+            Card existing = findByCardName(group.getName());
+            if (existing != null && !existing.equals(group)) {
+                throw new IllegalArgumentException("card with same name but different attributes exists.");
+            }
+            value = Math.addExact(value, Math.multiplyExact(group.getValueCents(), (long) group.getCount()));
+        }
+        checkValue(value);
+        for (Card group : groups.values()) {
+            addCopies(group, group.getCount());
+        }
+    }
+
+    /**
+     * Add a card with an exact count, as when loading a saved inventory.
+     * A count of zero keeps an entry with no copies on hand.
+     * @param definition the card to add
+     * @param count copies on hand (0 or more)
+     * @throws IllegalArgumentException if count is negative or the card is already present
+     */
+    public void restoreCard(CardDefinition definition, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        if (findByCardName(definition.getName()) != null) {
+            throw new IllegalArgumentException("card \"" + definition.getName() + "\" is already in the collection");
+        }
+        addCard(new Card(definition, count)); // fresh instance, so the collection may keep it
+    }
+
+    /**
+     * Add many cards with exact counts, as when loading a saved inventory. Storage modes
+     * may build their indexes in bulk when the collection is empty, which is much faster
+     * than adding cards one at a time.
+     * @param definitions the cards to add, with distinct names; name order is fastest
+     * @param counts copies on hand of each card (0 or more)
+     * @throws IllegalArgumentException if a count is negative or a card is repeated or already present
+     */
+    public void restoreCards(CardDefinition[] definitions, int[] counts) {
+        for (int i = 0; i < definitions.length; i++) {
+            restoreCard(definitions[i], counts[i]);
+        }
+    }
+
+    /**
+     * Add several copies of one card, creating its entry if needed.
+     * Callers have already checked that the card does not conflict with the collection.
+     * @param c card to add; the collection must not keep this instance
+     * @param copies number of copies to add (positive)
+     */
+    protected abstract void addCopies(Card c, int copies);
+
     /**
      * Remove one copy of a named card, returning a copy.
      * @param name name of card to remove (case-insensitive, trimmed)
@@ -43,35 +152,76 @@ public class CardCollection {
      * @throws IllegalStateException if collection empty or no copies left
      * @throws NoSuchElementException if card not found
      */
-    public Card removeCardByName(String name) {
-        if (CARDS.isEmpty()) {
-            throw new IllegalStateException("collection is empty!");
-        }
-        Card target = findByCardName(name);
-        if (target == null) {
-            throw new NoSuchElementException("card \"" + name + "\" not found in collection!");
-        }
-        if (target.getCount() == 0) {
-            throw new IllegalStateException("no copies left of the requested card.");
-        }
-        Card copy = Card.copyCard(target); // shallow copy, count=1
-        target.decrementCount();          // reduce stored count
-        return copy;
-    }
+    public abstract Card removeCardByName(String name);
 
     /**
      * Search for a card by name.
+     * <p>
+     * The returned card is for reading; change counts through this collection's methods,
+     * since some storage modes return a detached snapshot.
      * @param name card name to search (case-insensitive, trimmed)
      * @return the matching Card or null if absent
      */
-    public Card findByCardName(String name) {
-        String query = name.trim().toLowerCase();
-        for (Card card : CARDS) {
-            if (card.getName().trim().toLowerCase().equals(query)) {
-                return card;
-            }
-        }
-        return null; // not found
+    public abstract Card findByCardName(String name);
+
+    /**
+     * Find cards whose name starts with the given prefix.
+     * @param prefix name prefix to search (case-insensitive, trimmed)
+     * @param limit maximum number of cards to return
+     * @return matching cards in alphabetical order of their normalized names
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public abstract ArrayList<Card> findByPrefix(String prefix, int limit);
+
+    /**
+     * Find cards whose name is within a number of typing mistakes of the given name.
+     * @param name name to match (case-insensitive, trimmed)
+     * @param maxEdits maximum insertions, deletions or substitutions allowed
+     * @param limit maximum number of cards to return
+     * @return matching cards, closest first
+     * @throws IllegalArgumentException if maxEdits is negative or limit is not positive
+     */
+    public abstract ArrayList<Card> findSimilar(String name, int maxEdits, int limit);
+
+    /**
+     * Find cards matching a rarity and/or variation.
+     * @param rarity rarity to match, or null for any rarity
+     * @param variation variation to match, or null for any variation
+     * @return matching cards in name order
+     */
+    public abstract ArrayList<Card> findByAttributes(Rarity rarity, Variation variation);
+
+    /**
+     * Find cards on hand whose adjusted value lies within a range.
+     * @param min lowest value to include
+     * @param max highest value to include
+     * @return matching cards by ascending value, then name
+     * @throws IllegalArgumentException if min is greater than max
+     */
+    public abstract ArrayList<Card> findByValueRange(BigDecimal min, BigDecimal max);
+
+    /**
+     * Find the most valuable cards on hand.
+     * @param k maximum number of cards to return
+     * @return up to k cards by descending value, then name
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public abstract ArrayList<Card> findTopByValue(int k);
+
+    /**
+     * Total value of all copies in the collection, read from the running totals.
+     * @return sum of count times adjusted value over every card
+     */
+    public BigDecimal getTotalValue() {
+        return Money.toBigDecimal(STATS.getTotalValueCents());
+    }
+
+    /**
+     * Snapshot of copy and value totals, read from the running totals without scanning.
+     * @return current statistics of the collection
+     */
+    public CardStatistics getStatistics() {
+        return STATS.snapshot();
     }
 
     /**
@@ -79,13 +229,7 @@ public class CardCollection {
      * @param name card name to increment
      * @throws NoSuchElementException if card not found
      */
-    public void incrementCard(String name) {
-        Card card = findByCardName(name);
-        if (card == null) {
-            throw new NoSuchElementException("card \"" + name + "\" not found in collection!");
-        }
-        card.incrementCount();
-    }
+    public abstract void incrementCard(String name);
 
     /**
      * Decrement the count of a named card, not below zero.
@@ -93,23 +237,259 @@ public class CardCollection {
      * @throws NoSuchElementException if card not found
      * @throws IllegalStateException if count already at zero
      */
-    public void decrementCard(String name) {
-        Card card = findByCardName(name);
-        if (card == null) {
-            throw new NoSuchElementException("card \"" + name + "\" not found in collection!");
-        }
-        if (card.getCount() > 0) {
-            card.decrementCount();
-        } else throw new IllegalStateException("card count is already at 0!");
+    public abstract void decrementCard(String name);
+
+    /**
+     * Page through the collection after a cursor, in the given order.
+     * Cost grows with the page size and the logarithm of the collection size.
+     * @param order order to list cards in
+     * @param cursor cursor from an earlier page or {@link CardPage.Cursor#startingAt}, or null for the first page
+     * @param limit maximum number of cards on the page
+     * @return the page following the cursor
+     * @throws IllegalArgumentException if limit is not positive or the cursor belongs to another order
+     */
+    public CardPage pageAfter(CardPage.Order order, CardPage.Cursor cursor, int limit) {
+        checkLimit(limit);
+        checkCursor(order, cursor);
+        return page(order, cursor, true, limit);
+    }
+
+    /**
+     * Page through the collection before a cursor, in the given order.
+     * Cost grows with the page size and the logarithm of the collection size.
+     * @param order order to list cards in
+     * @param cursor cursor from an earlier page, or null for the last page
+     * @param limit maximum number of cards on the page
+     * @return the page preceding the cursor, still in ascending order
+     * @throws IllegalArgumentException if limit is not positive or the cursor belongs to another order
+     */
+    public CardPage pageBefore(CardPage.Order order, CardPage.Cursor cursor, int limit) {
+        checkLimit(limit);
+        checkCursor(order, cursor);
+        return page(order, cursor, false, limit);
+    }
+
+    /**
+     * Find where paging should start to show the first card whose name starts with a prefix.
+     * Only the first match in name order, ignoring case, is looked up, so the cost is that
+     * of {@link #findByPrefix} with a limit of one; the cursor places it in the page order.
+     * @param order order being paged
+     * @param prefix name prefix (case-insensitive, trimmed)
+     * @return an inclusive cursor at the first match, or null if no card matches
+     */
+    public CardPage.Cursor seek(CardPage.Order order, String prefix) {
+        ArrayList<Card> first = findByPrefix(prefix, 1);
+        return first.isEmpty() ? null : CardPage.Cursor.startingAt(order, first.get(0));
+    }
+
+    /**
+     * Take one page next to a cursor; arguments are already validated.
+     * @param order order to list cards in
+     * @param cursor cursor in that order, or null for the start (or end, going backward)
+     * @param forward true for the page after the cursor, false for the page before it
+     * @param limit maximum number of cards on the page
+     * @return the page
+     */
+    protected abstract CardPage page(CardPage.Order order, CardPage.Cursor cursor, boolean forward, int limit);
+
+    /**
+     * Take one page from a sorted map whose keys follow the page order.
+     * @param order order the map is sorted in
+     * @param map cards keyed in that order
+     * @param key the cursor's key in the map, or null with a null cursor
+     * @param cursor cursor to page from, or null for the start (or end, going backward)
+     * @param forward true for the page after the cursor, false for the page before it
+     * @param limit maximum cards on the page
+     * @return the page
+     */
+    protected static <K> CardPage pageOf(CardPage.Order order, NavigableMap<K, Card> map, K key,
+                                         CardPage.Cursor cursor, boolean forward, int limit) {
+        boolean inclusive = cursor != null && cursor.isInclusive();
+        NavigableMap<K, Card> rest;
+        if (forward) rest = cursor == null ? map : map.tailMap(key, inclusive);
+        else rest = (cursor == null ? map : map.headMap(key, inclusive)).descendingMap();
+        ArrayList<Card> cards = new ArrayList<>(Math.min(limit, 64));
+        Iterator<Card> it = rest.values().iterator();
+        while (it.hasNext() && cards.size() < limit) cards.add(it.next());
+        boolean more = it.hasNext();
+        // cards on the far side of the cursor exist if the complement of rest is non-empty
+        boolean beyond = cursor != null && !(forward ? map.headMap(key, !inclusive) : map.tailMap(key, !inclusive)).isEmpty();
+        if (forward) return new CardPage(order, cards, beyond, more);
+        Collections.reverse(cards);
+        return new CardPage(order, cards, more, beyond);
+    }
+
+    /**
+     * @return number of unique cards, including those whose count dropped to zero
+     */
+    public abstract int size();
+
+    /**
+     * @return number of unique cards whose count is zero
+     */
+    public abstract int getZeroCountEntries();
+
+    /**
+     * Purge every zero-count entry, rebuilding indexes around the cards that remain.
+     * @return the purged cards, each with a count of zero, for archiving
+     */
+    public ArrayList<Card> compact() {
+        return compact(key -> false);
+    }
+
+    /**
+     * Purge zero-count entries, except those the caller still needs.
+     * <p>
+     * Only zero-count entries are touched; counts, values and statistics of the
+     * remaining cards are unchanged. Cursors from earlier pages stay valid.
+     * @param retain tests a normalized name; true keeps that entry even at zero count
+     * @return the purged cards, each with a count of zero, for archiving
+     */
+    public abstract ArrayList<Card> compact(Predicate<String> retain);
+
+    /**
+     * @return true if the collection holds no unique cards
+     */
+    public boolean isEmpty() {
+        return size() == 0;
     }
 
     /**
      * Obtain a sorted shallow copy of all cards by name.
      * @return sorted ArrayList of Card references
      */
-    public ArrayList<Card> getSortedCopy() {
-        ArrayList<Card> sortedCopy = new ArrayList<>(this.CARDS);
-        sortedCopy.sort(Comparator.comparing(Card::getName));
-        return sortedCopy;
+    public abstract ArrayList<Card> getSortedCopy();
+
+    /**
+     * Obtain a read-only view of all cards in name order, without copying the collection.
+     * The view reflects later changes to the collection.
+     * @return unmodifiable name-ordered view of Card references
+     */
+    public abstract Collection<Card> getSortedView();
+
+    /**
+     * Seed the running totals with copies the subclass holds but has not reported one by one.
+     * @param rarity ordinal of the cards' Rarity
+     * @param variation ordinal of the cards' Variation
+     * @param copies number of copies
+     * @param valueCents adjusted value of those copies together, in cents
+     */
+    protected final void recordTotals(int rarity, int variation, long copies, long valueCents) {
+        STATS.add(rarity, variation, copies, valueCents);
+    }
+
+    /**
+     * Report a change in copies so the running totals stay current.
+     * Subclasses call this after every successful count change.
+     * @param rarity ordinal of the card's Rarity
+     * @param variation ordinal of the card's Variation
+     * @param valueCents adjusted value of one copy in cents
+     * @param delta change in copies
+     */
+    protected final void recordCopies(int rarity, int variation, long valueCents, int delta) {
+        STATS.record(rarity, variation, valueCents, delta);
+    }
+
+    /**
+     * Check, before any count or index changes, that copies can be added without the
+     * running totals overflowing. Subclasses call this first on every path that adds copies.
+     * @param c card whose copies are added
+     * @param copies copies to add
+     * @throws ArithmeticException if the total value would overflow
+     */
+    protected final void checkCopies(Card c, long copies) {
+        checkValue(Math.multiplyExact(c.getValueCents(), copies));
+    }
+
+    /**
+     * Check that a value can be added to the running totals, as {@link #checkCopies} does.
+     * @param valueCents value about to be added, in cents
+     * @throws ArithmeticException if the total value would overflow
+     */
+    protected void checkValue(long valueCents) {
+        STATS.checkAdd(valueCents);
+    }
+
+    /**
+     * Report a change in copies of a card so the running totals stay current.
+     * @param c card whose attributes are recorded; its own count is ignored
+     * @param delta change in copies
+     */
+    protected final void recordCopies(Card c, int delta) {
+        STATS.record(c, delta);
+    }
+
+    /**
+     * Spliterator over all cards in name order, splitting without copying the collection.
+     * Cards are read as the spliterator advances, so the collection must not be
+     * modified while it is in use.
+     * @return an ordered spliterator of Card references
+     */
+    public abstract Spliterator<Card> spliterator();
+
+    /**
+     * @return a sequential stream of all cards in name order
+     */
+    public Stream<Card> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a possibly parallel stream of all cards in name order
+     */
+    public Stream<Card> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * @param name the name that was looked up
+     * @return the exception thrown when a card is missing from the collection
+     */
+    protected static NoSuchElementException notFound(String name) {
+        return new NoSuchElementException("card \"" + name + "\" not found in collection!");
+    }
+
+    /**
+     * @param limit result limit to validate
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    protected static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+    }
+
+    /**
+     * @param order order being paged
+     * @param cursor cursor to validate, or null
+     * @throws IllegalArgumentException if the cursor belongs to a different order
+     */
+    private static void checkCursor(CardPage.Order order, CardPage.Cursor cursor) {
+        if (cursor != null && cursor.getOrder() != order) {
+            throw new IllegalArgumentException("cursor belongs to a different page order");
+        }
+    }
+
+    /**
+     * @param maxEdits edit budget to validate
+     * @return the budget, capped so that maxEdits + 1 cannot overflow
+     * @throws IllegalArgumentException if maxEdits is negative
+     */
+    protected static int checkEdits(int maxEdits) {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("maxEdits cannot be negative");
+        }
+        return Math.min(maxEdits, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * @param min lower bound to validate
+     * @param max upper bound to validate
+     * @throws IllegalArgumentException if min is greater than max
+     */
+    protected static void checkRange(BigDecimal min, BigDecimal max) {
+        if (min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("minimum value cannot exceed maximum value");
+        }
     }
 }
@@ -0,0 +1,163 @@
+package com.TradingCard;
+
+import com.TradingCard.Enums.*;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable identity of a trading card: NAME, RARITY, VARIATION and base value.
+ * <p>
+ * Definitions created through {@link #of} are interned in a shared catalog, so every
+ * copy of a card across the collection, binders and decks points at the same instance
+ * and a {@link Card} only adds a copy count. The catalog holds definitions weakly: one
+ * that nothing else references any more, such as a purged card's, is dropped.
+ * Storage modes that keep cards in primitive form rebuild definitions with
+ * {@link #fromStorage} instead, which skips the catalog; equality is by value, so
+ * such a definition works anywhere an interned one does.
+ * Derived lookup key, hash and adjusted value are computed once.
+ */
+public final class CardDefinition {
+    // shared catalog, weak in both key and value so unreferenced definitions are collected; guarded by itself
+    private static final WeakHashMap<CardDefinition, WeakReference<CardDefinition>> CATALOG = new WeakHashMap<>();
+
+    private final String NAME;
+    private final Rarity RARITY;
+    private final Variation VARIATION;
+    private final BigDecimal BASE_VALUE;
+    private final String KEY;       // normalized NAME used for lookups
+    private final int CARD_HASH;    // hash of KEY, RARITY, VARIATION, matching Card.equals
+    private final int ID_HASH;      // hash of all attributes, matching this class's equals
+    private final long VALUE_CENTS; // variation-adjusted value in cents
+    private final BigDecimal VALUE; // variation-adjusted value
+
+    private CardDefinition(String n, Rarity r, Variation v, BigDecimal val) {
+        this.NAME = n;
+        this.RARITY = r;
+        this.VARIATION = v;
+        this.BASE_VALUE = val;
+        this.KEY = Card.normalizeName(n);
+        this.CARD_HASH = Objects.hash(KEY, RARITY, VARIATION);
+        this.ID_HASH = Objects.hash(NAME, RARITY, VARIATION, BASE_VALUE);
+        this.VALUE_CENTS = Money.adjustedCents(val, v);
+        this.VALUE = Money.toBigDecimal(VALUE_CENTS);
+    }
+
+    /**
+     * Look up or intern the definition with the given attributes.
+     * @param n    the NAME of the card (must be non-null, non-empty)
+     * @param r    the RARITY of the card
+     * @param v    the VARIATION of the card
+     * @param val  the base monetary value of the card
+     * @return the shared definition instance
+     * @throws IllegalArgumentException if NAME is null or blank, or the value fails {@link Money#checkBaseValue}
+     */
+    public static CardDefinition of(String n, Rarity r, Variation v, BigDecimal val) {
+        if (n == null || n.trim().isEmpty()) {
+            throw new IllegalArgumentException("NAME cannot be empty");
+        }
+        Money.checkBaseValue(val, v); // the same limit in every storage mode
+        CardDefinition candidate = new CardDefinition(n.trim(), r, v, val);
+        synchronized (CATALOG) {
+            WeakReference<CardDefinition> ref = CATALOG.get(candidate);
+            CardDefinition existing = ref != null ? ref.get() : null;
+            if (existing != null) return existing;
+            CATALOG.put(candidate, new WeakReference<>(candidate));
+            return candidate;
+        }
+    }
+
+    /**
+     * Rebuild the definition of a stored card without consulting the catalog, so reading
+     * a card from compact storage neither looks it up nor keeps it alive.
+     * @param n    the NAME of the card, already trimmed when the card was created
+     * @param r    the RARITY of the card
+     * @param v    the VARIATION of the card
+     * @param val  the base monetary value of the card, already checked when it was created
+     * @return a definition equal to the one the card was created with
+     */
+    public static CardDefinition fromStorage(String n, Rarity r, Variation v, BigDecimal val) {
+        return new CardDefinition(n, r, v, val);
+    }
+
+    /**
+     * @return the NAME of this card
+     */
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @return the normalized (trimmed, lowercase) NAME used for lookups
+     */
+    public String getKey() {
+        return KEY;
+    }
+
+    /**
+     * @return the RARITY of this card
+     */
+    public Rarity getRarity() {
+        return RARITY;
+    }
+
+    /**
+     * @return the VARIATION of this card
+     */
+    public Variation getVariation() {
+        return VARIATION;
+    }
+
+    /**
+     * @return the base monetary value of this card
+     */
+    public BigDecimal getBaseValue() {
+        return BASE_VALUE;
+    }
+
+    /**
+     * @return the variation-adjusted value in cents
+     */
+    public long getValueCents() {
+        return VALUE_CENTS;
+    }
+
+    /**
+     * @return the variation-adjusted value, rounded to two decimal places
+     */
+    public BigDecimal getValue() {
+        return VALUE;
+    }
+
+    /**
+     * @return hash of KEY, RARITY and VARIATION, for use by {@link Card#hashCode()}
+     */
+    int getCardHash() {
+        return CARD_HASH;
+    }
+
+    /**
+     * Catalog identity: exact NAME, RARITY, VARIATION and base value.
+     * @param obj the object to compare
+     * @return true if all attributes match
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof CardDefinition other)) return false;
+        return this.ID_HASH == other.ID_HASH
+                && this.NAME.equals(other.NAME)
+                && this.RARITY == other.RARITY
+                && this.VARIATION == other.VARIATION
+                && Objects.equals(this.BASE_VALUE, other.BASE_VALUE);
+    }
+
+    /**
+     * @return hash code consistent with equals, computed at construction
+     */
+    @Override
+    public int hashCode() {
+        return ID_HASH;
+    }
+}
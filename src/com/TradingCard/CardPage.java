@@ -0,0 +1,176 @@
+package com.TradingCard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CardPage is one page of a collection listed in a chosen order.
+ * <p>
+ * Pages are addressed by cursor rather than by offset: a cursor remembers the sort
+ * key of a card, so the next or previous page is found by searching for that key
+ * instead of counting past every earlier card. Cursors stay valid as cards are added.
+ */
+public final class CardPage {
+    /**
+     * Order in which a collection is paged. Ties are broken by card name.
+     */
+    public enum Order { NAME, VALUE, RARITY }
+
+    /**
+     * Position in a paged order, just before, at or just after a card.
+     */
+    public static final class Cursor implements Comparable<Cursor> {
+        private final Order ORDER;
+        private final long PRIMARY;      // value in cents or rarity ordinal; 0 for name order
+        private final String NAME;       // card name, the tie-breaker in every order
+        private final boolean INCLUSIVE; // true if the card at this position is part of the page it starts
+
+        private Cursor(Order order, long primary, String name, boolean inclusive) {
+            this.ORDER = order;
+            this.PRIMARY = primary;
+            this.NAME = name;
+            this.INCLUSIVE = inclusive;
+        }
+
+        /**
+         * Cursor positioned at a card, so the page after it starts with that card.
+         * @param order order being paged
+         * @param c card to start at
+         * @return an inclusive cursor at the card
+         */
+        public static Cursor startingAt(Order order, Card c) {
+            return of(order, c, true);
+        }
+
+        /**
+         * @return cursor in the given order at the card's sort key
+         */
+        static Cursor of(Order order, Card c, boolean inclusive) {
+            long primary = switch (order) {
+                case NAME -> 0;
+                case VALUE -> c.getValueCents();
+                case RARITY -> c.getRarity().ordinal();
+            };
+            return new Cursor(order, primary, c.getName(), inclusive);
+        }
+
+        /**
+         * @return the order this cursor belongs to
+         */
+        public Order getOrder() {
+            return ORDER;
+        }
+
+        /**
+         * @return value in cents or rarity ordinal, depending on the order; 0 in name order
+         */
+        long getPrimary() {
+            return PRIMARY;
+        }
+
+        /**
+         * @return card name at this position
+         */
+        String getName() {
+            return NAME;
+        }
+
+        /**
+         * @return true if the card at this position belongs to the page it bounds
+         */
+        boolean isInclusive() {
+            return INCLUSIVE;
+        }
+
+        /**
+         * Compare sort keys only, ignoring whether the cursor is inclusive.
+         */
+        @Override
+        public int compareTo(Cursor other) {
+            int cmp = Long.compare(PRIMARY, other.PRIMARY);
+            return cmp != 0 ? cmp : NAME.compareTo(other.NAME);
+        }
+
+        /**
+         * Cursors are equal when they mark the same sort key, matching compareTo.
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Cursor other && compareTo(other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(PRIMARY) * 31 + NAME.hashCode();
+        }
+    }
+
+    private final Order ORDER;
+    private final List<Card> CARDS;
+    private final boolean HAS_PREVIOUS;
+    private final boolean HAS_NEXT;
+
+    /**
+     * Constructs a CardPage.
+     * @param order order the page was taken in
+     * @param cards cards on the page, in that order
+     * @param hasPrevious true if cards come before this page
+     * @param hasNext true if cards come after this page
+     */
+    CardPage(Order order, ArrayList<Card> cards, boolean hasPrevious, boolean hasNext) {
+        this.ORDER = order;
+        this.CARDS = Collections.unmodifiableList(cards);
+        this.HAS_PREVIOUS = hasPrevious;
+        this.HAS_NEXT = hasNext;
+    }
+
+    /**
+     * @return the order this page was taken in
+     */
+    public Order getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * @return the cards on this page, read-only
+     */
+    public List<Card> getCards() {
+        return CARDS;
+    }
+
+    /**
+     * @return true if cards come before this page
+     */
+    public boolean hasPrevious() {
+        return HAS_PREVIOUS;
+    }
+
+    /**
+     * @return true if cards come after this page
+     */
+    public boolean hasNext() {
+        return HAS_NEXT;
+    }
+
+    /**
+     * @return cursor whose page-after starts with this page's first card, or null if the page is empty
+     */
+    public Cursor getStartCursor() {
+        return CARDS.isEmpty() ? null : Cursor.of(ORDER, CARDS.get(0), true);
+    }
+
+    /**
+     * @return cursor for the page after this one, or null if the page is empty
+     */
+    public Cursor getNextCursor() {
+        return CARDS.isEmpty() ? null : Cursor.of(ORDER, CARDS.get(CARDS.size() - 1), false);
+    }
+
+    /**
+     * @return cursor for the page before this one, or null if the page is empty
+     */
+    public Cursor getPreviousCursor() {
+        return CARDS.isEmpty() ? null : Cursor.of(ORDER, CARDS.get(0), false);
+    }
+}
@@ -0,0 +1,126 @@
+package com.TradingCard;
+
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+
+import java.math.BigDecimal;
+
+/**
+ * CardStatistics is an immutable snapshot of copy and value totals for a card container.
+ * <p>
+ * Totals count every copy held, so a card with three copies contributes three
+ * copies and three times its adjusted value.
+ */
+public final class CardStatistics {
+    /** Statistics of a container holding no cards. */
+    public static final CardStatistics EMPTY = new CardStatistics(0, 0,
+            new long[Rarity.values().length], new long[Variation.values().length],
+            new long[Rarity.values().length], new long[Variation.values().length]);
+
+    private final long TOTAL_COPIES;                  // copies across all cards
+    private final long TOTAL_VALUE_CENTS;             // value across all cards
+    private final long[] COPIES_BY_RARITY;            // copies per Rarity ordinal
+    private final long[] COPIES_BY_VARIATION;         // copies per Variation ordinal
+    private final long[] VALUE_CENTS_BY_RARITY;       // value per Rarity ordinal
+    private final long[] VALUE_CENTS_BY_VARIATION;    // value per Variation ordinal
+
+    /**
+     * Constructs a snapshot from the given totals, copying the arrays.
+     */
+    CardStatistics(long totalCopies, long totalValueCents, long[] copiesByRarity, long[] copiesByVariation,
+                   long[] valueCentsByRarity, long[] valueCentsByVariation) {
+        this.TOTAL_COPIES = totalCopies;
+        this.TOTAL_VALUE_CENTS = totalValueCents;
+        this.COPIES_BY_RARITY = copiesByRarity.clone();
+        this.COPIES_BY_VARIATION = copiesByVariation.clone();
+        this.VALUE_CENTS_BY_RARITY = valueCentsByRarity.clone();
+        this.VALUE_CENTS_BY_VARIATION = valueCentsByVariation.clone();
+    }
+
+    /**
+     * @return number of copies held
+     */
+    public long getTotalCopies() {
+        return TOTAL_COPIES;
+    }
+
+    /**
+     * @return total adjusted value of all copies
+     */
+    public BigDecimal getTotalValue() {
+        return Money.toBigDecimal(TOTAL_VALUE_CENTS);
+    }
+
+    /**
+     * @param rarity rarity to report
+     * @return copies held of that rarity
+     */
+    public long getCopies(Rarity rarity) {
+        return COPIES_BY_RARITY[rarity.ordinal()];
+    }
+
+    /**
+     * @param variation variation to report
+     * @return copies held of that variation
+     */
+    public long getCopies(Variation variation) {
+        return COPIES_BY_VARIATION[variation.ordinal()];
+    }
+
+    /**
+     * @param rarity rarity to report
+     * @return total adjusted value of copies of that rarity
+     */
+    public BigDecimal getValue(Rarity rarity) {
+        return Money.toBigDecimal(VALUE_CENTS_BY_RARITY[rarity.ordinal()]);
+    }
+
+    /**
+     * @param variation variation to report
+     * @return total adjusted value of copies of that variation
+     */
+    public BigDecimal getValue(Variation variation) {
+        return Money.toBigDecimal(VALUE_CENTS_BY_VARIATION[variation.ordinal()]);
+    }
+
+    /**
+     * Combine this snapshot with another, as if both containers were one.
+     * @param other statistics to add
+     * @return a new snapshot holding the sums
+     * @throws ArithmeticException if a value total overflows
+     */
+    public CardStatistics plus(CardStatistics other) {
+        return new CardStatistics(TOTAL_COPIES + other.TOTAL_COPIES,
+                Math.addExact(TOTAL_VALUE_CENTS, other.TOTAL_VALUE_CENTS),
+                sum(COPIES_BY_RARITY, other.COPIES_BY_RARITY), sum(COPIES_BY_VARIATION, other.COPIES_BY_VARIATION),
+                sum(VALUE_CENTS_BY_RARITY, other.VALUE_CENTS_BY_RARITY),
+                sum(VALUE_CENTS_BY_VARIATION, other.VALUE_CENTS_BY_VARIATION));
+    }
+
+    /**
+     * @return element-wise sum of two arrays of equal length
+     */
+    private static long[] sum(long[] a, long[] b) {
+        long[] out = new long[a.length];
+        for (int i = 0; i < a.length; i++) out[i] = Math.addExact(a[i], b[i]);
+        return out;
+    }
+
+    /**
+     * @return a multi-line summary of the totals
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Copies: ").append(TOTAL_COPIES).append(" | Value: $").append(Money.format(TOTAL_VALUE_CENTS));
+        for (Rarity r : Rarity.values()) {
+            sb.append(String.format("%n  %s: %d copies, $%s", r.name().toLowerCase(),
+                    COPIES_BY_RARITY[r.ordinal()], Money.format(VALUE_CENTS_BY_RARITY[r.ordinal()])));
+        }
+        for (Variation v : Variation.values()) {
+            sb.append(String.format("%n  %s: %d copies, $%s", v.name().toLowerCase(),
+                    COPIES_BY_VARIATION[v.ordinal()], Money.format(VALUE_CENTS_BY_VARIATION[v.ordinal()])));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,494 @@
+package com.TradingCard;
+
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+
+/**
+ * ColumnarCardCollection stores the card pool as parallel primitive columns.
+ * <p>
+ * Each unique card occupies one slot across a name dictionary, byte rarity and
+ * variation ordinals, the exact base value as unscaled digits plus scale, the
+ * adjusted value in cents, and an int count. Names are found through an
+ * open-addressing table of slot numbers. Valuation, filtering and sorting scan the
+ * primitive columns, and Card objects are only built for the results returned.
+ * <p>
+ * Cards returned from this collection are detached snapshots; counts change only
+ * through the collection's own methods.
+ */
+public class ColumnarCardCollection extends CardCollection {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Rarity[] RARITIES = Rarity.values();
+    private static final Variation[] VARIATIONS = Variation.values();
+
+    // slot i of every column describes the same unique card
+    private String[] names;       // display names
+    private String[] keys;        // normalized names
+    private byte[] rarities;      // Rarity ordinals
+    private byte[] variations;    // Variation ordinals
+    private long[] baseUnscaled;  // base value digits
+    private byte[] baseScales;    // base value scale
+    private long[] valueCents;    // variation-adjusted value
+    private int[] counts;         // copies on hand
+    private int size;             // slots in use
+    private int zeroCount;        // slots whose count is zero
+
+    private int[] table;          // open addressing: key hash -> slot + 1, 0 when empty
+    // slots per CardPage.Order, null until first needed or after compaction; slots appended
+    // since an order was built are past its length and are merged in when it is next read
+    private final int[][] ORDERS;
+
+    /**
+     * Constructs an empty ColumnarCardCollection.
+     */
+    public ColumnarCardCollection() {
+        this.names = new String[INITIAL_CAPACITY];
+        this.keys = new String[INITIAL_CAPACITY];
+        this.rarities = new byte[INITIAL_CAPACITY];
+        this.variations = new byte[INITIAL_CAPACITY];
+        this.baseUnscaled = new long[INITIAL_CAPACITY];
+        this.baseScales = new byte[INITIAL_CAPACITY];
+        this.valueCents = new long[INITIAL_CAPACITY];
+        this.counts = new int[INITIAL_CAPACITY];
+        this.table = new int[INITIAL_CAPACITY * 2]; // keep load factor at or below one half
+        this.ORDERS = new int[CardPage.Order.values().length][];
+    }
+
+    /**
+     * @param key normalized name
+     * @return the slot holding that key, or -1 if absent
+     */
+    private int slotOf(String key) {
+        int mask = table.length - 1;
+        for (int i = spread(key.hashCode()) & mask; ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) return -1;
+            if (keys[entry - 1].equals(key)) return entry - 1;
+        }
+    }
+
+    /**
+     * @return hash with high bits folded in, since the table index uses only low bits
+     */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Record a slot in the open-addressing table.
+     */
+    private void insertIntoTable(int[] into, String key, int slot) {
+        int mask = into.length - 1;
+        int i = spread(key.hashCode()) & mask;
+        while (into[i] != 0) i = (i + 1) & mask;
+        into[i] = slot + 1;
+    }
+
+    /**
+     * Append a new unique card as the next slot, growing columns as needed.
+     */
+    private void append(Card c) {
+        BigDecimal base = c.getBaseValue(); // fits the columns: Money.checkBaseValue passed when it was created
+        if (size == names.length) {
+            int cap = size * 2;
+            names = Arrays.copyOf(names, cap);
+            keys = Arrays.copyOf(keys, cap);
+            rarities = Arrays.copyOf(rarities, cap);
+            variations = Arrays.copyOf(variations, cap);
+            baseUnscaled = Arrays.copyOf(baseUnscaled, cap);
+            baseScales = Arrays.copyOf(baseScales, cap);
+            valueCents = Arrays.copyOf(valueCents, cap);
+            counts = Arrays.copyOf(counts, cap);
+        }
+        int slot = size++;
+        names[slot] = c.getName();
+        keys[slot] = c.getKey();
+        rarities[slot] = (byte) c.getRarity().ordinal();
+        variations[slot] = (byte) c.getVariation().ordinal();
+        baseUnscaled[slot] = base.unscaledValue().longValue();
+        baseScales[slot] = (byte) base.scale();
+        valueCents[slot] = c.getValueCents();
+        counts[slot] = c.getCount();
+        if (counts[slot] == 0) zeroCount++;
+        if (size * 2 > table.length) {
+            int[] grown = new int[table.length * 2];
+            for (int s = 0; s < size - 1; s++) insertIntoTable(grown, keys[s], s);
+            table = grown;
+        }
+        insertIntoTable(table, keys[slot], slot); // cached orders take the slot when next read
+    }
+
+    /**
+     * Report a change in the slot's copies, already applied, to the running totals
+     * and the zero-count tally.
+     */
+    private void record(int slot, int delta) {
+        recordCopies(rarities[slot], variations[slot], valueCents[slot], delta);
+        if (counts[slot] == 0) zeroCount++;           // a decrease emptied the slot
+        else if (counts[slot] == delta) zeroCount--;  // an increase refilled an empty slot
+    }
+
+    /**
+     * @param slot slot to read
+     * @return a detached Card built from the slot's columns
+     */
+    private Card materialize(int slot) {
+        return new Card(definitionOf(slot), counts[slot]);
+    }
+
+    /**
+     * @param slot slot to read
+     * @return a definition equal to the one the slot was created from
+     */
+    private CardDefinition definitionOf(int slot) {
+        return CardDefinition.fromStorage(names[slot], RARITIES[rarities[slot]], VARIATIONS[variations[slot]],
+                BigDecimal.valueOf(baseUnscaled[slot], baseScales[slot]));
+    }
+
+    /**
+     * @param slots slots to build cards for, in order
+     * @param n number of leading entries to use
+     * @return the matching cards
+     */
+    private ArrayList<Card> materializeAll(int[] slots, int n) {
+        ArrayList<Card> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(materialize(slots[i]));
+        return out;
+    }
+
+    /**
+     * @return slots in name order, building the cached order on first use
+     */
+    private int[] sortedSlots() {
+        return slotsIn(CardPage.Order.NAME);
+    }
+
+    /**
+     * @return slots in the given page order, building the cached order on first use and
+     *         merging in the slots appended since
+     */
+    private int[] slotsIn(CardPage.Order order) {
+        int[] slots = ORDERS[order.ordinal()];
+        if (slots == null) {
+            slots = new int[size];
+            for (int i = 0; i < size; i++) slots[i] = i;
+            Slots.sort(slots, size, (a, b) -> compare(order, a, b));
+            ORDERS[order.ordinal()] = slots;
+        } else if (slots.length < size) {
+            int[] added = new int[size - slots.length];
+            for (int i = 0; i < added.length; i++) added[i] = slots.length + i;
+            Slots.sort(added, added.length, (a, b) -> compare(order, a, b));
+            slots = Slots.merge(slots, added, (a, b) -> compare(order, a, b));
+            ORDERS[order.ordinal()] = slots;
+        }
+        return slots;
+    }
+
+    /**
+     * @return the primary sort key of a slot in the given page order
+     */
+    private long primary(CardPage.Order order, int slot) {
+        return switch (order) {
+            case NAME -> 0;
+            case VALUE -> valueCents[slot];
+            case RARITY -> rarities[slot];
+        };
+    }
+
+    /**
+     * Compare two slots in a page order, breaking ties by name.
+     */
+    private int compare(CardPage.Order order, int a, int b) {
+        int cmp = Long.compare(primary(order, a), primary(order, b));
+        return cmp != 0 ? cmp : names[a].compareTo(names[b]);
+    }
+
+    /**
+     * @param slot slot to find
+     * @param name the name that was looked up, for the error message
+     * @return the slot, if present
+     * @throws NoSuchElementException if the name is not in the collection
+     */
+    private static int require(int slot, String name) {
+        if (slot < 0) throw notFound(name);
+        return slot;
+    }
+
+    @Override
+    public void addCard(Card c) {
+        int slot = slotOf(c.getKey());
+        if (slot < 0) {
+            checkCopies(c, c.getCount());
+            append(c); // new unique card
+            recordCopies(c, c.getCount());
+        } else if (rarities[slot] == c.getRarity().ordinal() && variations[slot] == c.getVariation().ordinal()) {
+            checkValue(valueCents[slot]);
+            counts[slot]++; // same card, increase count
+            record(slot, 1);
+        } else {
+            throw new IllegalArgumentException("card with same name but different attributes exists.");
+        }
+    }
+
+    @Override
+    protected void addCopies(Card c, int copies) {
+        int slot = slotOf(c.getKey());
+        checkCopies(c, copies);
+        if (slot < 0) {
+            append(new Card(c.getDefinition(), copies));
+            recordCopies(c, copies);
+            return;
+        }
+        counts[slot] = Math.addExact(counts[slot], copies);
+        record(slot, copies);
+    }
+
+    @Override
+    public Card removeCardByName(String name) {
+        if (size == 0) {
+            throw new IllegalStateException("collection is empty!");
+        }
+        int slot = require(slotOf(Card.normalizeName(name)), name);
+        if (counts[slot] == 0) {
+            throw new IllegalStateException("no copies left of the requested card.");
+        }
+        counts[slot]--;
+        record(slot, -1);
+        return new Card(definitionOf(slot)); // removed copy, count=1
+    }
+
+    @Override
+    public Card findByCardName(String name) {
+        int slot = slotOf(Card.normalizeName(name));
+        return slot < 0 ? null : materialize(slot);
+    }
+
+    @Override
+    public ArrayList<Card> findByPrefix(String prefix, int limit) {
+        checkLimit(limit);
+        String key = Card.normalizeName(prefix);
+        int[] hits = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (keys[i].startsWith(key)) hits[n++] = i;
+        }
+        Slots.sort(hits, n, (a, b) -> keys[a].compareTo(keys[b]));
+        return materializeAll(hits, Math.min(n, limit));
+    }
+
+    @Override
+    public ArrayList<Card> findSimilar(String name, int maxEdits, int limit) {
+        maxEdits = checkEdits(maxEdits);
+        checkLimit(limit);
+        String key = Card.normalizeName(name);
+        int[] prevRow = new int[key.length() + 1], row = new int[key.length() + 1];
+        int[] hits = new int[size];
+        int[] distances = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int d = NameTrie.editDistance(key, keys[i], maxEdits, prevRow, row);
+            if (d <= maxEdits) {
+                distances[i] = d;
+                hits[n++] = i;
+            }
+        }
+        Slots.sort(hits, n, (a, b) -> distances[a] != distances[b]
+                ? Integer.compare(distances[a], distances[b]) : keys[a].compareTo(keys[b]));
+        return materializeAll(hits, Math.min(n, limit));
+    }
+
+    @Override
+    public ArrayList<Card> findByAttributes(Rarity rarity, Variation variation) {
+        int r = rarity == null ? -1 : rarity.ordinal();
+        int v = variation == null ? -1 : variation.ordinal();
+        int[] hits = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if ((r < 0 || rarities[i] == r) && (v < 0 || variations[i] == v)) hits[n++] = i;
+        }
+        Slots.sort(hits, n, (a, b) -> names[a].compareTo(names[b]));
+        return materializeAll(hits, n);
+    }
+
+    @Override
+    public ArrayList<Card> findByValueRange(BigDecimal min, BigDecimal max) {
+        checkRange(min, max);
+        long lo = Money.toCents(min, RoundingMode.CEILING);
+        long hi = Money.toCents(max, RoundingMode.FLOOR);
+        int[] hits = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] > 0 && valueCents[i] >= lo && valueCents[i] <= hi) hits[n++] = i;
+        }
+        Slots.sort(hits, n, (a, b) -> valueCents[a] != valueCents[b]
+                ? Long.compare(valueCents[a], valueCents[b]) : names[a].compareTo(names[b]));
+        return materializeAll(hits, n);
+    }
+
+    @Override
+    public ArrayList<Card> findTopByValue(int k) {
+        checkLimit(k);
+        int[] hits = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] > 0) hits[n++] = i;
+        }
+        Slots.sort(hits, n, (a, b) -> valueCents[a] != valueCents[b]
+                ? Long.compare(valueCents[b], valueCents[a]) : names[a].compareTo(names[b]));
+        return materializeAll(hits, Math.min(n, k));
+    }
+
+    @Override
+    public void incrementCard(String name) {
+        int slot = require(slotOf(Card.normalizeName(name)), name);
+        checkValue(valueCents[slot]);
+        counts[slot]++;
+        record(slot, 1);
+    }
+
+    @Override
+    public void decrementCard(String name) {
+        int slot = require(slotOf(Card.normalizeName(name)), name);
+        if (counts[slot] > 0) {
+            counts[slot]--;
+            record(slot, -1);
+        } else throw new IllegalStateException("card count is already at 0!");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Splits halve the name-ordered slot array and build cards one at a time, so
+     * parallel streams never materialize the whole collection.
+     */
+    @Override
+    public Spliterator<Card> spliterator() {
+        int[] slots = sortedSlots();
+        return new SlotSpliterator(slots, 0, slots.length, this::materialize);
+    }
+
+    @Override
+    protected CardPage page(CardPage.Order order, CardPage.Cursor cursor, boolean forward, int limit) {
+        Slots.Position position = cursor == null ? null : slot -> {
+            int cmp = Long.compare(primary(order, slot), cursor.getPrimary());
+            return cmp != 0 ? cmp : names[slot].compareTo(cursor.getName());
+        };
+        return Slots.page(order, slotsIn(order), cursor, position, forward, limit, this::materialize);
+    }
+
+    @Override
+    public int getZeroCountEntries() {
+        return zeroCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Surviving slots are copied into fresh, right-sized columns and a new table,
+     * which replace the old ones only once complete. Slot numbers change, so cached
+     * orders are rebuilt on next use.
+     */
+    @Override
+    public ArrayList<Card> compact(Predicate<String> retain) {
+        ArrayList<Card> purged = new ArrayList<>();
+        if (zeroCount == 0) return purged;
+        int[] kept = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] == 0 && !retain.test(keys[i])) purged.add(materialize(i));
+            else kept[n++] = i;
+        }
+        if (purged.isEmpty()) return purged;
+
+        int cap = Math.max(INITIAL_CAPACITY, n);
+        String[] newNames = new String[cap], newKeys = new String[cap];
+        byte[] newRarities = new byte[cap], newVariations = new byte[cap], newScales = new byte[cap];
+        long[] newUnscaled = new long[cap], newValues = new long[cap];
+        int[] newCounts = new int[cap];
+        int tableLength = INITIAL_CAPACITY * 2;
+        while (tableLength < n * 2) tableLength *= 2;
+        int[] newTable = new int[tableLength];
+        for (int j = 0; j < n; j++) {
+            int i = kept[j];
+            newNames[j] = names[i];
+            newKeys[j] = keys[i];
+            newRarities[j] = rarities[i];
+            newVariations[j] = variations[i];
+            newUnscaled[j] = baseUnscaled[i];
+            newScales[j] = baseScales[i];
+            newValues[j] = valueCents[i];
+            newCounts[j] = counts[i];
+            insertIntoTable(newTable, keys[i], j);
+        }
+
+        // swap the rebuilt storage in
+        names = newNames;
+        keys = newKeys;
+        rarities = newRarities;
+        variations = newVariations;
+        baseUnscaled = newUnscaled;
+        baseScales = newScales;
+        valueCents = newValues;
+        counts = newCounts;
+        table = newTable;
+        size = n;
+        zeroCount -= purged.size();
+        Arrays.fill(ORDERS, null);
+        return purged;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ArrayList<Card> getSortedCopy() {
+        int[] slots = sortedSlots();
+        return materializeAll(slots, slots.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cards are built one at a time as the view is iterated.
+     */
+    @Override
+    public Collection<Card> getSortedView() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Card> iterator() {
+                int[] slots = sortedSlots();
+                return new Iterator<>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < slots.length;
+                    }
+
+                    @Override
+                    public Card next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return materialize(slots[next++]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
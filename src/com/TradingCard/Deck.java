@@ -1,30 +1,54 @@
 package com.TradingCard;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Deck holds up to a fixed number of unique cards for gameplay.
+ * Deck holds up to a set number of unique cards for gameplay.
  * <p>
  * Supports adding, removing, and listing cards, with capacity and duplicate
- * prevention logic enforced.
+ * prevention logic enforced. Cards are keyed by normalized name in insertion
+ * order, so lookups and the duplicate check stay constant-time at any capacity.
  */
 public class Deck {
-    private static final int MAX_CAPACITY = 10; // max cards in a deck
+    public static final int DEFAULT_CAPACITY = 10; // cards in a standard deck
 
-    private final String NAME;                // deck name identifier
-    private final ArrayList<Card> CARDS;     // internal list of cards
+    private final String NAME;                         // deck name identifier
+    private final int CAPACITY;                        // max cards in this deck
+    private final LinkedHashMap<String, Card> CARDS;   // normalized name -> card, in insertion order
+    private final RunningStatistics STATS;             // totals kept in step with every card added or removed
 
     /**
-     * Constructs a Deck with the specified name.
+     * Constructs a Deck with the specified name and the default capacity.
      * @param name non-null, non-blank name
      * @throws IllegalArgumentException if name is null or blank
      */
     public Deck(String name) {
+        this(name, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a Deck with the specified name and capacity.
+     * @param name non-null, non-blank name
+     * @param capacity maximum number of cards this deck holds
+     * @throws IllegalArgumentException if name is null or blank, or capacity is not positive
+     */
+    public Deck(String name, int capacity) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("name cannot be empty");
         }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
         this.NAME = name.trim();
-        this.CARDS = new ArrayList<>();
+        this.CAPACITY = capacity;
+        this.CARDS = new LinkedHashMap<>();
+        this.STATS = new RunningStatistics();
     }
 
     /**
@@ -34,8 +58,24 @@ public class Deck {
         return NAME;
     }
 
+    /**
+     * @return the maximum number of cards this deck holds
+     */
+    public int getCapacity() {
+        return CAPACITY;
+    }
+
+    /**
+     * Snapshot of copy and value totals, read from the running totals without scanning.
+     * @return current statistics of this deck
+     */
+    public CardStatistics getStatistics() {
+        return this.STATS.snapshot();
+    }
+
     /**
      * Retrieves a card by its position in deck.
+     * Walks the insertion order, so cost grows with the index.
      * @param index zero-based index of card
      * @return the Card at given index
      * @throws IndexOutOfBoundsException if index invalid
@@ -43,7 +83,11 @@ public class Deck {
     public Card getCardAtIndex(int index) {
         if (index < 0 || index >= CARDS.size())
             throw new IndexOutOfBoundsException("invalid card index: " + index);
-        return this.CARDS.get(index);
+        int i = 0;
+        for (Card card : this.CARDS.values()) {
+            if (i++ == index) return card;
+        }
+        throw new IndexOutOfBoundsException("invalid card index: " + index); // unreachable
     }
 
     /**
@@ -52,10 +96,7 @@ public class Deck {
      * @return the matching Card or null if absent
      */
     public Card findByCardName(String name) {
-        for (Card card : this.CARDS) {
-            if (card.getName().equalsIgnoreCase(name)) return card;
-        }
-        return null; // not found
+        return this.CARDS.get(Card.normalizeName(name));
     }
 
     /**
@@ -65,10 +106,10 @@ public class Deck {
      * @throws IllegalArgumentException if same name but different attributes exists
      */
     public boolean addCard(Card c) {
-        if (this.CARDS.size() >= MAX_CAPACITY) {
+        if (this.CARDS.size() >= CAPACITY) {
             return false; // deck full
         }
-        Card existing = findByCardName(c.getName());
+        Card existing = this.CARDS.get(c.getKey());
         if (existing != null) {
             if (existing.equals(c)) {
                 return false; // duplicate
@@ -76,7 +117,9 @@ public class Deck {
                 throw new IllegalArgumentException("a different card with the same name already exists in the deck.");
             }
         }
-        this.CARDS.add(c);
+        this.STATS.checkAdd(c.getValueCents()); // before the card is placed
+        this.CARDS.put(c.getKey(), c);
+        this.STATS.record(c, 1);
         return true;
     }
 
@@ -85,11 +128,20 @@ public class Deck {
      * @return list of removed cards
      */
     public ArrayList<Card> removeAllCards() {
-        ArrayList<Card> cards = new ArrayList<>(this.CARDS);
-        this.CARDS.clear();
+        ArrayList<Card> cards = new ArrayList<>(this.CARDS.values());
+        clear();
         return cards;
     }
 
+    /**
+     * Remove all cards from this deck without returning them.
+     * Callers that need the cards read {@link #getView()} first.
+     */
+    public void clear() {
+        this.CARDS.clear();
+        this.STATS.clear();
+    }
+
     /**
      * Remove a specific card by name.
      * @param name case-insensitive name of card
@@ -101,11 +153,11 @@ public class Deck {
         if (this.CARDS.isEmpty()) { // Deck is empty
             throw new IllegalStateException("deck is empty");
         }
-        Card target = findByCardName(name);
+        Card target = this.CARDS.remove(Card.normalizeName(name));
         if (target == null) { // not present
             throw new IllegalArgumentException("card \"" + name + "\" not found in deck.");
         }
-        this.CARDS.remove(target);
+        this.STATS.record(target, -1);
         return target;
     }
 
@@ -113,6 +165,52 @@ public class Deck {
      * @return a shallow copy of current cards (unsorted)
      */
     public ArrayList<Card> getCopyOfCards() {
-        return new ArrayList<>(this.CARDS);
+        return new ArrayList<>(this.CARDS.values());
+    }
+
+    /**
+     * Get a read-only view of the cards in this deck, without copying.
+     * The view keeps insertion order and reflects later changes to the deck.
+     * @return unmodifiable view of the cards
+     */
+    public Collection<Card> getView() {
+        return Collections.unmodifiableCollection(this.CARDS.values());
+    }
+
+    /**
+     * Spliterator over the cards in this deck, in insertion order, without copying.
+     * The deck must not be modified while it is in use.
+     * @return an ordered, sized spliterator of cards
+     */
+    public Spliterator<Card> spliterator() {
+        return getView().spliterator();
+    }
+
+    /**
+     * @return a sequential stream of the cards in insertion order
+     */
+    public Stream<Card> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a possibly parallel stream of the cards in insertion order
+     */
+    public Stream<Card> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * @return number of cards in this deck
+     */
+    public int size() {
+        return this.CARDS.size();
+    }
+
+    /**
+     * @return true if this deck holds no cards
+     */
+    public boolean isEmpty() {
+        return this.CARDS.isEmpty();
     }
 }
@@ -10,8 +10,21 @@ package com.TradingCard.Enums;
  * </ul>
  */
 public enum Variation {
-    NORMAL,
-    EXTENDED_ART,
-    FULL_ART,
-    ALT_ART
+    NORMAL(2),
+    EXTENDED_ART(3),
+    FULL_ART(4),
+    ALT_ART(6);
+
+    private final int MULTIPLIER_HALVES; // value multiplier in halves, so 1.5x is exact in integers
+
+    Variation(int multiplierHalves) {
+        this.MULTIPLIER_HALVES = multiplierHalves;
+    }
+
+    /**
+     * @return the value multiplier expressed in halves (e.g. 3 for 1.5x)
+     */
+    public int getMultiplierHalves() {
+        return MULTIPLIER_HALVES;
+    }
 }
@@ -0,0 +1,461 @@
+package com.TradingCard;
+
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * IndexedCardCollection is the default, heap-based CardCollection.
+ * <p>
+ * Stores Card objects in name order and keeps hashed, trie, attribute and value
+ * indexes in step with every change, so lookups and filtered queries avoid scanning.
+ */
+public class IndexedCardCollection extends CardCollection {
+    private final TreeMap<String, Card> CARDS; // card name -> card, kept in name order
+    private final HashMap<String, Card> INDEX; // normalized name -> card, kept in step with CARDS
+    private final NameTrie<Card> NAME_TRIE;    // normalized name -> card, for prefix/typo search
+    // one name-ordered bucket per rarity/variation pair, so any filter is a union of buckets
+    private final EnumMap<Rarity, EnumMap<Variation, TreeMap<String, Card>>> BY_ATTRIBUTES;
+    // adjusted value in cents -> name-ordered cards at that value; only cards with copies on hand
+    private final TreeMap<Long, TreeMap<String, Card>> BY_VALUE;
+    // every card keyed by its position in value and rarity page order, for cursor paging
+    private final TreeMap<CardPage.Cursor, Card> VALUE_ORDER;
+    private final TreeMap<CardPage.Cursor, Card> RARITY_ORDER;
+    private final HashMap<String, Card> ZERO_COUNT; // normalized name -> card, for entries with no copies left
+
+    /**
+     * Constructs an empty IndexedCardCollection.
+     */
+    public IndexedCardCollection(){
+        this.CARDS = new TreeMap<>();      // initialize ordered storage
+        this.INDEX = new HashMap<>();      // initialize name index
+        this.NAME_TRIE = new NameTrie<>(); // initialize search index
+        this.BY_ATTRIBUTES = new EnumMap<>(Rarity.class);
+        for (Rarity r : Rarity.values()) {
+            EnumMap<Variation, TreeMap<String, Card>> byVariation = new EnumMap<>(Variation.class);
+            for (Variation v : Variation.values()) {
+                byVariation.put(v, new TreeMap<>());
+            }
+            this.BY_ATTRIBUTES.put(r, byVariation);
+        }
+        this.BY_VALUE = new TreeMap<>();
+        this.VALUE_ORDER = new TreeMap<>();
+        this.RARITY_ORDER = new TreeMap<>();
+        this.ZERO_COUNT = new HashMap<>();
+    }
+
+    /**
+     * Enter a card into the value index, and off the zero-count list, once it has copies on hand.
+     * @param c card whose count just became positive
+     */
+    private void indexValue(Card c) {
+        BY_VALUE.computeIfAbsent(c.getValueCents(), v -> new TreeMap<>()).put(c.getName(), c);
+        ZERO_COUNT.remove(c.getKey());
+    }
+
+    /**
+     * Drop a card from the value index, and onto the zero-count list, once it has no copies left.
+     * @param c card whose count just reached zero
+     */
+    private void unindexValue(Card c) {
+        ZERO_COUNT.put(c.getKey(), c);
+        long value = c.getValueCents();
+        TreeMap<String, Card> sameValue = BY_VALUE.get(value);
+        if (sameValue != null) {
+            sameValue.remove(c.getName());
+            if (sameValue.isEmpty()) BY_VALUE.remove(value);
+        }
+    }
+
+    /**
+     * Add a card or increment count if identical card exists.
+     * @param c Card to add or increment
+     * @throws IllegalArgumentException if a card with same name but different attributes exists
+     */
+    @Override
+    public void addCard(Card c){
+        String key = c.getKey();
+        Card existing = INDEX.get(key);
+        if (existing == null) {
+            checkCopies(c, c.getCount());
+            CARDS.put(c.getName(), c); // new unique card, placed in name order
+            INDEX.put(key, c);         // keep indexes in step with storage
+            NAME_TRIE.put(key, c);
+            BY_ATTRIBUTES.get(c.getRarity()).get(c.getVariation()).put(c.getName(), c);
+            VALUE_ORDER.put(CardPage.Cursor.of(CardPage.Order.VALUE, c, true), c);
+            RARITY_ORDER.put(CardPage.Cursor.of(CardPage.Order.RARITY, c, true), c);
+            if (c.getCount() > 0) indexValue(c);
+            else ZERO_COUNT.put(key, c);
+            recordCopies(c, c.getCount());
+        } else if (existing.equals(c)) {
+            checkCopies(existing, 1);
+            existing.incrementCount(); // same card, increase count
+            if (existing.getCount() == 1) indexValue(existing); // back in stock
+            recordCopies(existing, 1);
+        } else {
+            throw new IllegalArgumentException("card with same name but different attributes exists.");
+        }
+    }
+
+    /**
+     * When the collection is empty, every index is built from sorted runs in one linear
+     * pass per index instead of a tree insertion per card.
+     */
+    @Override
+    public void restoreCards(CardDefinition[] definitions, int[] counts) {
+        if (!CARDS.isEmpty()) {
+            super.restoreCards(definitions, counts);
+            return;
+        }
+        int n = definitions.length;
+        Card[] cards = new Card[n];
+        long value = 0;
+        for (int i = 0; i < n; i++) {
+            if (counts[i] < 0) {
+                throw new IllegalArgumentException("count cannot be negative");
+            }
+            cards[i] = new Card(definitions[i], counts[i]);
+            value = Math.addExact(value, Math.multiplyExact(cards[i].getValueCents(), (long) counts[i]));
+        }
+        checkValue(value);
+        for (Card c : cards) {
+            if (INDEX.putIfAbsent(c.getKey(), c) != null) {
+                INDEX.clear(); // nothing else has changed yet
+                throw new IllegalArgumentException("card \"" + c.getName() + "\" is repeated");
+            }
+        }
+        Arrays.sort(cards, Comparator.comparing(Card::getName)); // linear when already in name order
+
+        ArrayList<Map.Entry<String, Card>> byName = new ArrayList<>(n);
+        EnumMap<Rarity, EnumMap<Variation, ArrayList<Map.Entry<String, Card>>>> byAttributes = new EnumMap<>(Rarity.class);
+        for (Rarity r : Rarity.values()) {
+            byAttributes.put(r, new EnumMap<>(Variation.class));
+            for (Variation v : Variation.values()) byAttributes.get(r).put(v, new ArrayList<>());
+        }
+        for (Card c : cards) {
+            Map.Entry<String, Card> entry = new AbstractMap.SimpleImmutableEntry<>(c.getName(), c);
+            byName.add(entry);
+            byAttributes.get(c.getRarity()).get(c.getVariation()).add(entry);
+            NAME_TRIE.put(c.getKey(), c);
+            if (c.getCount() == 0) ZERO_COUNT.put(c.getKey(), c);
+            recordCopies(c, c.getCount());
+        }
+        CARDS.putAll(new PresortedMap<>(CARDS.comparator(), byName));
+        for (Rarity r : Rarity.values()) {
+            for (Variation v : Variation.values()) {
+                TreeMap<String, Card> bucket = BY_ATTRIBUTES.get(r).get(v);
+                bucket.putAll(new PresortedMap<>(bucket.comparator(), byAttributes.get(r).get(v)));
+            }
+        }
+
+        ArrayList<Map.Entry<CardPage.Cursor, Card>> byValue = sortedCursors(cards, CardPage.Order.VALUE);
+        VALUE_ORDER.putAll(new PresortedMap<>(VALUE_ORDER.comparator(), byValue));
+        RARITY_ORDER.putAll(new PresortedMap<>(RARITY_ORDER.comparator(), sortedCursors(cards, CardPage.Order.RARITY)));
+
+        // value order is value then name, so each value's cards form one name-ordered run
+        ArrayList<Map.Entry<Long, TreeMap<String, Card>>> values = new ArrayList<>();
+        ArrayList<Map.Entry<String, Card>> run = new ArrayList<>();
+        for (int i = 0; i < byValue.size(); i++) {
+            Card c = byValue.get(i).getValue();
+            if (c.getCount() > 0) run.add(new AbstractMap.SimpleImmutableEntry<>(c.getName(), c));
+            boolean last = i + 1 == byValue.size() || byValue.get(i + 1).getValue().getValueCents() != c.getValueCents();
+            if (last && !run.isEmpty()) {
+                TreeMap<String, Card> sameValue = new TreeMap<>();
+                sameValue.putAll(new PresortedMap<>(null, run));
+                values.add(new AbstractMap.SimpleImmutableEntry<>(c.getValueCents(), sameValue));
+                run = new ArrayList<>();
+            }
+        }
+        BY_VALUE.putAll(new PresortedMap<>(BY_VALUE.comparator(), values));
+    }
+
+    /**
+     * @return every card keyed by its cursor in the given order, sorted by cursor
+     */
+    private static ArrayList<Map.Entry<CardPage.Cursor, Card>> sortedCursors(Card[] cards, CardPage.Order order) {
+        ArrayList<Map.Entry<CardPage.Cursor, Card>> entries = new ArrayList<>(cards.length);
+        for (Card c : cards) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(CardPage.Cursor.of(order, c, true), c));
+        }
+        entries.sort(Map.Entry.comparingByKey());
+        return entries;
+    }
+
+    @Override
+    protected void addCopies(Card c, int copies) {
+        Card existing = INDEX.get(c.getKey());
+        if (existing == null) {
+            addCard(new Card(c.getDefinition(), copies)); // fresh entry owned by the collection
+            return;
+        }
+        checkCopies(existing, copies);
+        boolean wasEmpty = existing.getCount() == 0;
+        existing.addCount(copies);
+        if (wasEmpty) indexValue(existing); // back in stock
+        recordCopies(existing, copies);
+    }
+
+    /**
+     * Remove one copy of a named card, returning a copy.
+     * @param name name of card to remove (case-insensitive, trimmed)
+     * @return a new Card instance representing the removed copy
+     * @throws IllegalStateException if collection empty or no copies left
+     * @throws NoSuchElementException if card not found
+     */
+    @Override
+    public Card removeCardByName(String name) {
+        if (CARDS.isEmpty()) {
+            throw new IllegalStateException("collection is empty!");
+        }
+        Card target = findByCardName(name);
+        if (target == null) {
+            throw notFound(name);
+        }
+        if (target.getCount() == 0) {
+            throw new IllegalStateException("no copies left of the requested card.");
+        }
+        Card copy = Card.copyCard(target); // shallow copy, count=1
+        target.decrementCount();          // reduce stored count
+        if (target.getCount() == 0) unindexValue(target);
+        recordCopies(target, -1);
+        return copy;
+    }
+
+    /**
+     * Search for a card by name in constant time via the name index.
+     * @param name card name to search (case-insensitive, trimmed)
+     * @return the matching Card or null if absent
+     */
+    @Override
+    public Card findByCardName(String name) {
+        return INDEX.get(Card.normalizeName(name));
+    }
+
+    /**
+     * Find cards whose name starts with the given prefix.
+     * @param prefix name prefix to search (case-insensitive, trimmed)
+     * @param limit maximum number of cards to return
+     * @return matching cards in alphabetical order
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    @Override
+    public ArrayList<Card> findByPrefix(String prefix, int limit) {
+        checkLimit(limit);
+        return NAME_TRIE.withPrefix(Card.normalizeName(prefix), limit);
+    }
+
+    /**
+     * Find cards whose name is within a number of typing mistakes of the given name.
+     * @param name name to match (case-insensitive, trimmed)
+     * @param maxEdits maximum insertions, deletions or substitutions allowed
+     * @param limit maximum number of cards to return
+     * @return matching cards, closest first
+     * @throws IllegalArgumentException if maxEdits is negative or limit is not positive
+     */
+    @Override
+    public ArrayList<Card> findSimilar(String name, int maxEdits, int limit) {
+        maxEdits = checkEdits(maxEdits);
+        checkLimit(limit);
+        return NAME_TRIE.similarTo(Card.normalizeName(name), maxEdits, limit);
+    }
+
+    /**
+     * Find cards matching a rarity and/or variation.
+     * <p>
+     * Cards are bucketed by rarity/variation pair, so the cost is proportional to the
+     * number of matches rather than the collection size.
+     * @param rarity rarity to match, or null for any rarity
+     * @param variation variation to match, or null for any variation
+     * @return matching cards in name order
+     */
+    @Override
+    public ArrayList<Card> findByAttributes(Rarity rarity, Variation variation) {
+        ArrayList<Card> matches = new ArrayList<>();
+        int buckets = 0;
+        for (Rarity r : Rarity.values()) {
+            if (rarity != null && r != rarity) continue;
+            for (Variation v : Variation.values()) {
+                if (variation != null && v != variation) continue;
+                TreeMap<String, Card> bucket = BY_ATTRIBUTES.get(r).get(v);
+                if (!bucket.isEmpty()) {
+                    matches.addAll(bucket.values());
+                    buckets++;
+                }
+            }
+        }
+        if (buckets > 1) {
+            matches.sort(Comparator.comparing(Card::getName)); // merge name-ordered buckets
+        }
+        return matches;
+    }
+
+    /**
+     * Find cards on hand whose adjusted value lies within a range.
+     * @param min lowest value to include
+     * @param max highest value to include
+     * @return matching cards by ascending value, then name
+     * @throws IllegalArgumentException if min is greater than max
+     */
+    @Override
+    public ArrayList<Card> findByValueRange(BigDecimal min, BigDecimal max) {
+        checkRange(min, max);
+        long lo = Money.toCents(min, RoundingMode.CEILING); // values are whole cents,
+        long hi = Money.toCents(max, RoundingMode.FLOOR);   // so round bounds inward
+        ArrayList<Card> matches = new ArrayList<>();
+        if (lo > hi) return matches;
+        for (TreeMap<String, Card> sameValue : BY_VALUE.subMap(lo, true, hi, true).values()) {
+            matches.addAll(sameValue.values());
+        }
+        return matches;
+    }
+
+    /**
+     * Find the most valuable cards on hand.
+     * @param k maximum number of cards to return
+     * @return up to k cards by descending value, then name
+     * @throws IllegalArgumentException if k is not positive
+     */
+    @Override
+    public ArrayList<Card> findTopByValue(int k) {
+        checkLimit(k);
+        ArrayList<Card> top = new ArrayList<>(Math.min(k, INDEX.size()));
+        for (Map.Entry<Long, TreeMap<String, Card>> entry : BY_VALUE.descendingMap().entrySet()) {
+            for (Card c : entry.getValue().values()) {
+                if (top.size() >= k) return top;
+                top.add(c);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Increment the count of a named card in the collection.
+     * @param name card name to increment
+     * @throws NoSuchElementException if card not found
+     */
+    @Override
+    public void incrementCard(String name) {
+        Card card = findByCardName(name);
+        if (card == null) {
+            throw notFound(name);
+        }
+        checkCopies(card, 1);
+        card.incrementCount();
+        if (card.getCount() == 1) indexValue(card); // back in stock
+        recordCopies(card, 1);
+    }
+
+    /**
+     * Decrement the count of a named card, not below zero.
+     * @param name card name to decrement
+     * @throws NoSuchElementException if card not found
+     * @throws IllegalStateException if count already at zero
+     */
+    @Override
+    public void decrementCard(String name) {
+        Card card = findByCardName(name);
+        if (card == null) {
+            throw notFound(name);
+        }
+        if (card.getCount() > 0) {
+            card.decrementCount();
+            if (card.getCount() == 0) unindexValue(card);
+            recordCopies(card, -1);
+        } else throw new IllegalStateException("card count is already at 0!");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Splits follow the name-ordered tree, so no copy of the collection is made.
+     */
+    @Override
+    public Spliterator<Card> spliterator() {
+        return Collections.unmodifiableCollection(CARDS.values()).spliterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Name order walks the card storage itself; value and rarity order walk
+     * dedicated sorted indexes.
+     */
+    @Override
+    protected CardPage page(CardPage.Order order, CardPage.Cursor cursor, boolean forward, int limit) {
+        return switch (order) {
+            case NAME -> pageOf(order, CARDS, cursor == null ? null : cursor.getName(), cursor, forward, limit);
+            case VALUE -> pageOf(order, VALUE_ORDER, cursor, cursor, forward, limit);
+            case RARITY -> pageOf(order, RARITY_ORDER, cursor, cursor, forward, limit);
+        };
+    }
+
+    @Override
+    public int getZeroCountEntries() {
+        return ZERO_COUNT.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Visits only the zero-count entries and unlinks each from every index in
+     * place, so the cost follows the number of entries purged.
+     */
+    @Override
+    public ArrayList<Card> compact(Predicate<String> retain) {
+        ArrayList<Card> purged = new ArrayList<>();
+        for (Iterator<Card> it = ZERO_COUNT.values().iterator(); it.hasNext(); ) {
+            Card c = it.next();
+            if (retain.test(c.getKey())) continue;
+            it.remove();
+            CARDS.remove(c.getName());
+            INDEX.remove(c.getKey());
+            NAME_TRIE.remove(c.getKey());
+            BY_ATTRIBUTES.get(c.getRarity()).get(c.getVariation()).remove(c.getName());
+            VALUE_ORDER.remove(CardPage.Cursor.of(CardPage.Order.VALUE, c, true));
+            RARITY_ORDER.remove(CardPage.Cursor.of(CardPage.Order.RARITY, c, true));
+            purged.add(c);
+        }
+        return purged;
+    }
+
+    @Override
+    public int size() {
+        return CARDS.size();
+    }
+
+    /**
+     * Obtain a sorted shallow copy of all cards by name.
+     * Storage is already ordered, so this is a linear copy with no sorting.
+     * @return sorted ArrayList of Card references
+     */
+    @Override
+    public ArrayList<Card> getSortedCopy() {
+        return new ArrayList<>(this.CARDS.values());
+    }
+
+    /**
+     * Obtain a read-only view of all cards in name order, without copying.
+     * The view reflects later changes to the collection.
+     * @return unmodifiable name-ordered view of Card references
+     */
+    @Override
+    public Collection<Card> getSortedView() {
+        return Collections.unmodifiableCollection(this.CARDS.values());
+    }
+}
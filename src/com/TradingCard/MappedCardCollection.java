@@ -0,0 +1,500 @@
+package com.TradingCard;
+
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * MappedCardCollection serves a saved collection straight from a memory-mapped file.
+ * <p>
+ * Opening one reads a few offsets and nothing else, so startup time does not grow with
+ * the collection. Name lookups probe a hash table stored in the file and read the card
+ * in place. A Card object is built only for a card that is read, and kept only for a
+ * card whose count changes; those cards and any new ones live in a small heap overlay
+ * on top of the file, which is never written.
+ * <p>
+ * Paging in name order reads the file in place, since its records are in name order.
+ * Prefix, similarity, attribute and value queries, and paging in value or rarity order,
+ * need indexes the file does not hold. The first of them moves the whole collection
+ * into an {@link IndexedCardCollection}, and every later call goes to it.
+ * <p>
+ * The file holds, at the offsets given to the constructor:
+ * <ul>
+ *   <li>each card's name as an int byte length followed by UTF-8 bytes</li>
+ *   <li>a record of {@value #RECORD_BYTES} bytes per card, in name order: rarity and
+ *       variation ordinals and the base value's scale as one byte each, the unscaled
+ *       base value as a long, and the count as an int</li>
+ *   <li>an index: the hash table size, then the table built by {@link #hashTable},
+ *       the number of zero-count cards, copies and value in cents as two longs for each
+ *       rarity and variation pair (rarity-major), and the offset of each card's name</li>
+ * </ul>
+ */
+public class MappedCardCollection extends CardCollection {
+    public static final int RECORD_BYTES = 15; // rarity, variation, scale, unscaled base value, count
+    private static final int SCALE = 2;         // offset of the base value's scale within a record
+    private static final int UNSCALED = 3;      // offset of the unscaled base value within a record
+    private static final int COUNT = 11;        // offset of the count within a record
+
+    private static final Rarity[] RARITIES = Rarity.values();
+    private static final Variation[] VARIATIONS = Variation.values();
+
+    private final ByteBuffer FILE;     // read-only mapping, read with absolute gets only
+    private final int BASE_SIZE;       // cards in the file
+    private final int RECORDS;         // offset of the first card record
+    private final int TABLE;           // offset of the first hash table slot
+    private final int TABLE_MASK;      // hash table size - 1
+    private final int NAME_OFFSETS;    // offset of the name offset array
+    private final HashMap<Integer, Card> TOUCHED;   // file position -> entry now holding its count
+    private final TreeMap<String, Card> ADDED;      // card name -> card not in the file, in name order
+    private final HashMap<String, Card> ADDED_INDEX; // normalized name -> the same cards
+    private int zeroCount;                          // cards whose count is zero
+    private IndexedCardCollection promoted;         // every card, once a query needed full indexes
+
+    /**
+     * Constructs a MappedCardCollection over a mapped file laid out as described above.
+     * @param file the mapped file; it must not change while this collection is in use
+     * @param size number of cards in the file
+     * @param records offset of the first card record
+     * @param index offset of the index
+     */
+    public MappedCardCollection(ByteBuffer file, int size, int records, int index) {
+        this.FILE = file;
+        this.BASE_SIZE = size;
+        this.RECORDS = records;
+        int tableSize = file.getInt(index);
+        this.TABLE = index + 4;
+        this.TABLE_MASK = tableSize - 1;
+        int at = TABLE + 4 * tableSize;
+        this.zeroCount = file.getInt(at);
+        at += 4;
+        for (int r = 0; r < RARITIES.length; r++) {
+            for (int v = 0; v < VARIATIONS.length; v++) {
+                recordTotals(r, v, file.getLong(at), file.getLong(at + 8));
+                at += 16;
+            }
+        }
+        this.NAME_OFFSETS = at;
+        this.TOUCHED = new HashMap<>();
+        this.ADDED = new TreeMap<>();
+        this.ADDED_INDEX = new HashMap<>();
+    }
+
+    /**
+     * Build the hash table stored in a file's index.
+     * @param cards the cards in file order
+     * @return slots holding a card's position plus one, or 0 when empty; the size is a power of two
+     */
+    public static int[] hashTable(CardDefinition[] cards) {
+        int size = Integer.highestOneBit(Math.max(2, cards.length * 2 - 1)) << 1; // at most half full
+        int[] table = new int[size];
+        for (int i = 0; i < cards.length; i++) {
+            int slot = spread(cards[i].getKey()) & (size - 1);
+            while (table[slot] != 0) slot = (slot + 1) & (size - 1);
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    /**
+     * @return the hash of a normalized name, with high bits folded in for small tables
+     */
+    private static int spread(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @param key normalized name
+     * @return position of the card in the file, or -1 if it is not there
+     */
+    private int positionOf(String key) {
+        for (int slot = spread(key) & TABLE_MASK; ; slot = (slot + 1) & TABLE_MASK) {
+            int entry = FILE.getInt(TABLE + 4 * slot);
+            if (entry == 0) return -1;
+            if (Card.normalizeName(nameAt(entry - 1)).equals(key)) return entry - 1;
+        }
+    }
+
+    /**
+     * @param position position of a card in the file
+     * @return its name, decoded from the file
+     */
+    private String nameAt(int position) {
+        int offset = FILE.getInt(NAME_OFFSETS + 4 * position);
+        byte[] bytes = new byte[FILE.getInt(offset)];
+        FILE.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Definition of a card stored in the file, whatever has happened to it since.
+     * @param position position of a card in the file, below the number of cards it holds
+     * @return a definition equal to the one the card was saved with
+     */
+    public CardDefinition definitionAt(int position) {
+        int record = RECORDS + RECORD_BYTES * position;
+        return CardDefinition.fromStorage(nameAt(position), RARITIES[FILE.get(record)], VARIATIONS[FILE.get(record + 1)],
+                BigDecimal.valueOf(FILE.getLong(record + UNSCALED), FILE.get(record + SCALE)));
+    }
+
+    /**
+     * @param position position of a card in the file
+     * @return a detached card with its current count
+     */
+    private Card materialize(int position) {
+        Card touched = TOUCHED.get(position);
+        if (touched != null) return new Card(touched.getDefinition(), touched.getCount());
+        return new Card(definitionAt(position), FILE.getInt(RECORDS + RECORD_BYTES * position + COUNT));
+    }
+
+    /**
+     * @param position position of a card in the file
+     * @return the overlay entry holding the card's count, created on first change
+     */
+    private Card touch(int position) {
+        return TOUCHED.computeIfAbsent(position,
+                p -> new Card(definitionAt(p), FILE.getInt(RECORDS + RECORD_BYTES * p + COUNT)));
+    }
+
+    /**
+     * @param key normalized name
+     * @return the entry holding the card's count, or null if absent
+     */
+    private Card entryOf(String key) {
+        Card added = ADDED_INDEX.get(key);
+        if (added != null) return added;
+        int position = positionOf(key);
+        return position < 0 ? null : touch(position);
+    }
+
+    /**
+     * Move every card into an indexed collection, once, for queries the file cannot answer.
+     * @return the collection now holding every card
+     */
+    private IndexedCardCollection promote() {
+        if (promoted == null) {
+            int n = size();
+            CardDefinition[] definitions = new CardDefinition[n];
+            int[] counts = new int[n];
+            int i = 0;
+            for (Card c : getSortedView()) {
+                definitions[i] = c.getDefinition();
+                counts[i++] = c.getCount();
+            }
+            IndexedCardCollection full = new IndexedCardCollection();
+            full.restoreCards(definitions, counts);
+            promoted = full;
+            TOUCHED.clear(); // the overlay is now part of promoted
+            ADDED.clear();
+            ADDED_INDEX.clear();
+        }
+        return promoted;
+    }
+
+    @Override
+    public void addCard(Card c) {
+        if (promoted != null) {
+            promoted.addCard(c);
+            return;
+        }
+        Card existing = entryOf(c.getKey());
+        if (existing == null) {
+            checkCopies(c, c.getCount());
+            Card entry = new Card(c.getDefinition(), c.getCount());
+            ADDED.put(entry.getName(), entry); // new unique card
+            ADDED_INDEX.put(entry.getKey(), entry);
+            if (entry.getCount() == 0) zeroCount++;
+            recordCopies(entry, entry.getCount());
+        } else if (existing.equals(c)) {
+            checkCopies(existing, 1);
+            existing.incrementCount(); // same card, increase count
+            if (existing.getCount() == 1) zeroCount--;
+            recordCopies(existing, 1);
+        } else {
+            throw new IllegalArgumentException("card with same name but different attributes exists.");
+        }
+    }
+
+    @Override
+    protected void addCopies(Card c, int copies) {
+        if (promoted != null) {
+            promoted.addCopies(c, copies);
+            return;
+        }
+        Card existing = entryOf(c.getKey());
+        if (existing == null) {
+            addCard(new Card(c.getDefinition(), copies));
+            return;
+        }
+        checkCopies(existing, copies);
+        if (existing.getCount() == 0) zeroCount--;
+        existing.addCount(copies);
+        recordCopies(existing, copies);
+    }
+
+    @Override
+    public Card removeCardByName(String name) {
+        if (promoted != null) return promoted.removeCardByName(name);
+        if (size() == 0) {
+            throw new IllegalStateException("collection is empty!");
+        }
+        Card entry = entryOf(Card.normalizeName(name));
+        if (entry == null) throw notFound(name);
+        if (entry.getCount() == 0) {
+            throw new IllegalStateException("no copies left of the requested card.");
+        }
+        entry.decrementCount();
+        if (entry.getCount() == 0) zeroCount++;
+        recordCopies(entry, -1);
+        return new Card(entry.getDefinition()); // removed copy, count=1
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cards still as saved are read from the file; the returned card is detached.
+     */
+    @Override
+    public Card findByCardName(String name) {
+        if (promoted != null) return promoted.findByCardName(name);
+        String key = Card.normalizeName(name);
+        Card added = ADDED_INDEX.get(key);
+        if (added != null) return new Card(added.getDefinition(), added.getCount());
+        int position = positionOf(key);
+        return position < 0 ? null : materialize(position);
+    }
+
+    @Override
+    public ArrayList<Card> findByPrefix(String prefix, int limit) {
+        return promote().findByPrefix(prefix, limit);
+    }
+
+    @Override
+    public ArrayList<Card> findSimilar(String name, int maxEdits, int limit) {
+        return promote().findSimilar(name, maxEdits, limit);
+    }
+
+    @Override
+    public ArrayList<Card> findByAttributes(Rarity rarity, Variation variation) {
+        return promote().findByAttributes(rarity, variation);
+    }
+
+    @Override
+    public ArrayList<Card> findByValueRange(BigDecimal min, BigDecimal max) {
+        return promote().findByValueRange(min, max);
+    }
+
+    @Override
+    public ArrayList<Card> findTopByValue(int k) {
+        return promote().findTopByValue(k);
+    }
+
+    @Override
+    protected void checkValue(long valueCents) {
+        if (promoted != null) promoted.checkValue(valueCents); // its totals are the current ones
+        else super.checkValue(valueCents);
+    }
+
+    @Override
+    public BigDecimal getTotalValue() {
+        return promoted != null ? promoted.getTotalValue() : super.getTotalValue();
+    }
+
+    @Override
+    public CardStatistics getStatistics() {
+        return promoted != null ? promoted.getStatistics() : super.getStatistics();
+    }
+
+    @Override
+    public void incrementCard(String name) {
+        if (promoted != null) {
+            promoted.incrementCard(name);
+            return;
+        }
+        Card entry = entryOf(Card.normalizeName(name));
+        if (entry == null) throw notFound(name);
+        checkCopies(entry, 1);
+        entry.incrementCount();
+        if (entry.getCount() == 1) zeroCount--;
+        recordCopies(entry, 1);
+    }
+
+    @Override
+    public void decrementCard(String name) {
+        if (promoted != null) {
+            promoted.decrementCard(name);
+            return;
+        }
+        Card entry = entryOf(Card.normalizeName(name));
+        if (entry == null) throw notFound(name);
+        if (entry.getCount() > 0) {
+            entry.decrementCount();
+            if (entry.getCount() == 0) zeroCount++;
+            recordCopies(entry, -1);
+        } else throw new IllegalStateException("card count is already at 0!");
+    }
+
+    @Override
+    protected CardPage page(CardPage.Order order, CardPage.Cursor cursor, boolean forward, int limit) {
+        if (promoted == null && order == CardPage.Order.NAME) return pageByName(cursor, forward, limit);
+        return promote().page(order, cursor, forward, limit);
+    }
+
+    /**
+     * Take one page in name order without promoting: the cursor is found in the file by
+     * binary search, and the file's cards are merged with the added ones as the page fills.
+     * @param cursor cursor in name order, or null for the start (or end, going backward)
+     * @param forward true for the page after the cursor, false for the page before it
+     * @param limit maximum cards on the page
+     * @return the page
+     */
+    private CardPage pageByName(CardPage.Cursor cursor, boolean forward, int limit) {
+        String name = cursor == null ? null : cursor.getName();
+        boolean inclusive = cursor != null && cursor.isInclusive();
+        int step = forward ? 1 : -1;
+        int position;                     // next file position to take, moving away from the cursor
+        int remaining;                    // file cards left on the page's side of the cursor
+        NavigableMap<String, Card> added; // added cards on that side, nearest the cursor first
+        boolean beyond;                   // cards exist on the far side of the cursor
+        if (forward) {
+            position = cursor == null ? 0 : fileBoundary(name, inclusive);
+            remaining = BASE_SIZE - position;
+            added = cursor == null ? ADDED : ADDED.tailMap(name, inclusive);
+            beyond = position > 0 || cursor != null && !ADDED.headMap(name, !inclusive).isEmpty();
+        } else {
+            int end = cursor == null ? BASE_SIZE : fileBoundary(name, !inclusive);
+            position = end - 1;
+            remaining = end;
+            added = (cursor == null ? ADDED : ADDED.headMap(name, inclusive)).descendingMap();
+            beyond = end < BASE_SIZE || cursor != null && !ADDED.tailMap(name, !inclusive).isEmpty();
+        }
+        Iterator<Card> it = added.values().iterator();
+        Card nextAdded = it.hasNext() ? it.next() : null;
+        ArrayList<Card> cards = new ArrayList<>(Math.min(limit, 64));
+        while (cards.size() < limit && (remaining > 0 || nextAdded != null)) {
+            if (remaining > 0 && (nextAdded == null || step * nameAt(position).compareTo(nextAdded.getName()) < 0)) {
+                cards.add(materialize(position));
+                position += step;
+                remaining--;
+            } else {
+                cards.add(new Card(nextAdded.getDefinition(), nextAdded.getCount()));
+                nextAdded = it.hasNext() ? it.next() : null;
+            }
+        }
+        boolean more = remaining > 0 || nextAdded != null;
+        if (forward) return new CardPage(CardPage.Order.NAME, cards, beyond, more);
+        Collections.reverse(cards);
+        return new CardPage(CardPage.Order.NAME, cards, more, beyond);
+    }
+
+    /**
+     * @param name card name to search for
+     * @param atOrAfter true to stop at a card with that name, false to pass it
+     * @return first file position whose name follows name, or equals it when atOrAfter
+     */
+    private int fileBoundary(String name, boolean atOrAfter) {
+        int lo = 0;
+        int hi = BASE_SIZE;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = nameAt(mid).compareTo(name);
+            if (cmp < 0 || cmp == 0 && !atOrAfter) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public int size() {
+        return promoted != null ? promoted.size() : BASE_SIZE + ADDED.size();
+    }
+
+    @Override
+    public int getZeroCountEntries() {
+        return promoted != null ? promoted.getZeroCountEntries() : zeroCount;
+    }
+
+    @Override
+    public ArrayList<Card> compact(Predicate<String> retain) {
+        return promote().compact(retain);
+    }
+
+    @Override
+    public ArrayList<Card> getSortedCopy() {
+        ArrayList<Card> copy = new ArrayList<>(size());
+        copy.addAll(getSortedView());
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cards are read from the file one at a time as the view is iterated, merged in
+     * name order with the cards added since it was saved.
+     */
+    @Override
+    public Collection<Card> getSortedView() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Card> iterator() {
+                if (promoted != null) return promoted.getSortedView().iterator();
+                Iterator<Card> added = ADDED.values().iterator();
+                return new Iterator<>() {
+                    private int position = 0;                                   // next card in the file
+                    private Card nextAdded = added.hasNext() ? added.next() : null; // next added card
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < BASE_SIZE || nextAdded != null;
+                    }
+
+                    @Override
+                    public Card next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        if (position < BASE_SIZE) {
+                            Card saved = materialize(position);
+                            if (nextAdded == null || saved.getName().compareTo(nextAdded.getName()) < 0) {
+                                position++;
+                                return saved;
+                            }
+                        }
+                        Card out = new Card(nextAdded.getDefinition(), nextAdded.getCount());
+                        nextAdded = added.hasNext() ? added.next() : null;
+                        return out;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MappedCardCollection.this.size();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Splits take batches from the view, so cards are still read one at a time.
+     */
+    @Override
+    public Spliterator<Card> spliterator() {
+        if (promoted != null) return promoted.spliterator();
+        return Spliterators.spliterator(getSortedView(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+}
@@ -0,0 +1,102 @@
+package com.TradingCard;
+
+import com.TradingCard.Enums.Variation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Money holds fixed-point helpers for amounts stored as whole cents in a long.
+ * <p>
+ * Valuation, comparison and summing work on cents without allocating;
+ * BigDecimal is only used when converting at the API boundary.
+ */
+public final class Money {
+    public static final long CENTS_PER_UNIT = 100; // cents in one dollar
+
+    private static final long MAX_EXACT_BASE_CENTS = Long.MAX_VALUE / 6; // safe for the largest multiplier
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private Money() {
+        // static helpers only
+    }
+
+    /**
+     * Compute a card's variation-adjusted value in cents, rounded HALF_UP to two places.
+     * Gives the same result as multiplying the BigDecimal base value by the variation
+     * multiplier and calling {@code setScale(2, RoundingMode.HALF_UP)}.
+     * @param base base monetary value
+     * @param variation variation whose multiplier applies
+     * @return adjusted value in cents
+     * @throws ArithmeticException if the value does not fit in a long
+     */
+    public static long adjustedCents(BigDecimal base, Variation variation) {
+        int halves = variation.getMultiplierHalves();
+        if (base.scale() >= 0 && base.scale() <= 2 && base.precision() <= 16) {
+            // exact in long arithmetic: base * halves is a whole number of half-cents
+            long baseCents = base.unscaledValue().longValue() * (base.scale() == 2 ? 1 : base.scale() == 1 ? 10 : 100);
+            if (Math.abs(baseCents) <= MAX_EXACT_BASE_CENTS) {
+                long halfCents = baseCents * halves;
+                return halfCents >= 0 ? (halfCents + 1) / 2 : -((-halfCents + 1) / 2); // HALF_UP
+            }
+        }
+        return base.multiply(BigDecimal.valueOf(halves))
+                .divide(TWO)
+                .setScale(2, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact();
+    }
+
+    /**
+     * Check that a base value fits every storage mode, so the same card is accepted
+     * whichever mode is in use: its digits fit in a long with a scale that fits in a
+     * byte, and its adjusted value fits in a long of cents.
+     * @param base base monetary value
+     * @param variation variation whose multiplier applies
+     * @throws IllegalArgumentException if the value has too many digits or is too large
+     */
+    public static void checkBaseValue(BigDecimal base, Variation variation) {
+        if (base.scale() < Byte.MIN_VALUE || base.scale() > Byte.MAX_VALUE || base.unscaledValue().bitLength() > 63) {
+            throw new IllegalArgumentException("base value has too many digits.");
+        }
+        try {
+            adjustedCents(base, variation);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("base value is too large.");
+        }
+    }
+
+    /**
+     * Convert an amount to cents, as for a query bound. Amounts beyond the range of a
+     * long saturate, since no card value lies beyond them either.
+     * @param amount amount to convert
+     * @param mode rounding applied beyond two decimal places
+     * @return amount in cents, or Long.MIN_VALUE / Long.MAX_VALUE if it does not fit
+     */
+    public static long toCents(BigDecimal amount, RoundingMode mode) {
+        BigInteger cents = amount.setScale(2, mode).unscaledValue();
+        if (cents.bitLength() > 63) return cents.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        return cents.longValue();
+    }
+
+    /**
+     * Convert cents back to a two-decimal BigDecimal.
+     * @param cents amount in cents
+     * @return equivalent BigDecimal with scale 2
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Format cents the way a scale-2 BigDecimal prints (e.g. "12.50", "-0.05").
+     * @param cents amount in cents
+     * @return formatted amount without currency symbol
+     */
+    public static String format(long cents) {
+        long whole = cents / 100;
+        int frac = (int) Math.abs(cents % 100);
+        String sign = (cents < 0 && whole == 0) ? "-" : "";
+        return sign + whole + (frac < 10 ? ".0" : ".") + frac;
+    }
+}
@@ -0,0 +1,223 @@
+package com.TradingCard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * NameTrie indexes values by normalized card name for prefix and typo-tolerant lookup.
+ * <p>
+ * Each node keeps its children in a sorted label array, so results come back in
+ * alphabetical key order. Similarity search walks the trie once, carrying one row
+ * of the edit-distance table per node and pruning any branch that can no longer
+ * come within the allowed number of edits.
+ * @param <V> the value stored under each name
+ */
+class NameTrie<V> {
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * A single trie node: sorted child labels, matching child nodes, and an optional value.
+     */
+    private static final class Node {
+        private char[] labels = NO_LABELS;      // sorted edge labels
+        private Node[] children = NO_CHILDREN;  // children[i] is reached via labels[i]
+        private int size;                       // number of used child slots
+        private Object value;                   // value stored at this key, or null
+
+        /**
+         * @param c edge label to look up
+         * @return the child reached via c, or null if absent
+         */
+        private Node child(char c) {
+            int i = Arrays.binarySearch(labels, 0, size, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        /**
+         * @param c edge label to look up or create
+         * @return the existing or newly inserted child reached via c
+         */
+        private Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(labels, 0, size, c);
+            if (i >= 0) return children[i];
+            i = -i - 1; // insertion point
+            if (size == labels.length) {
+                int cap = Math.max(2, size * 2);
+                labels = Arrays.copyOf(labels, cap);
+                children = Arrays.copyOf(children, cap);
+            }
+            System.arraycopy(labels, i, labels, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            Node created = new Node();
+            labels[i] = c;
+            children[i] = created;
+            size++;
+            return created;
+        }
+
+        /**
+         * Unlink the child reached via c.
+         * @param c edge label to remove
+         */
+        private void removeChild(char c) {
+            int i = Arrays.binarySearch(labels, 0, size, c);
+            if (i < 0) return;
+            System.arraycopy(labels, i + 1, labels, i, size - i - 1);
+            System.arraycopy(children, i + 1, children, i, size - i - 1);
+            children[--size] = null;
+        }
+    }
+
+    private final Node ROOT = new Node();
+
+    /**
+     * Store a value under the given key, replacing any previous value.
+     * @param key normalized name
+     * @param value value to store (non-null)
+     */
+    void put(String key, V value) {
+        Node node = ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        node.value = value;
+    }
+
+    /**
+     * Remove the value under the given key, pruning nodes left without purpose.
+     * @param key normalized name
+     */
+    void remove(String key) {
+        remove(ROOT, key, 0);
+    }
+
+    /**
+     * @return true if node no longer holds a value or children and can be unlinked
+     */
+    private boolean remove(Node node, String key, int depth) {
+        if (depth == key.length()) {
+            node.value = null;
+        } else {
+            char c = key.charAt(depth);
+            Node child = node.child(c);
+            if (child == null) return false;
+            if (remove(child, key, depth + 1)) node.removeChild(c);
+        }
+        return node != ROOT && node.value == null && node.size == 0;
+    }
+
+    /**
+     * Collect values whose key starts with the given prefix, in alphabetical order.
+     * @param prefix normalized prefix
+     * @param limit maximum number of values to return
+     * @return matching values, at most limit of them
+     */
+    ArrayList<V> withPrefix(String prefix, int limit) {
+        ArrayList<V> out = new ArrayList<>();
+        Node node = ROOT;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node != null) collect(node, out, limit);
+        return out;
+    }
+
+    /**
+     * Depth-first collection of values beneath a node, stopping at limit.
+     */
+    @SuppressWarnings("unchecked")
+    private void collect(Node node, ArrayList<V> out, int limit) {
+        if (out.size() >= limit) return;
+        if (node.value != null) out.add((V) node.value);
+        for (int i = 0; i < node.size && out.size() < limit; i++) {
+            collect(node.children[i], out, limit);
+        }
+    }
+
+    /**
+     * Collect values whose key is within maxEdits insertions, deletions or
+     * substitutions of the query. Closer matches come first; ties are alphabetical.
+     * @param query normalized name
+     * @param maxEdits maximum edit distance (0 or more)
+     * @param limit maximum number of values to return
+     * @return matching values, at most limit of them
+     */
+    ArrayList<V> similarTo(String query, int maxEdits, int limit) {
+        // buckets are added as distances are found, so a huge budget costs nothing
+        ArrayList<ArrayList<V>> byDistance = new ArrayList<>(Math.min(maxEdits, query.length()) + 1);
+
+        int[] firstRow = new int[query.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) firstRow[i] = i; // distance from empty key
+        for (int i = 0; i < ROOT.size; i++) {
+            similarTo(ROOT.children[i], ROOT.labels[i], query, firstRow, maxEdits, byDistance);
+        }
+
+        ArrayList<V> out = new ArrayList<>();
+        for (ArrayList<V> bucket : byDistance) {
+            for (V v : bucket) {
+                if (out.size() >= limit) return out;
+                out.add(v);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Edit distance between a query and a candidate key, giving up once it must exceed maxEdits.
+     * Used by storage modes that scan names instead of keeping a trie.
+     * @param query normalized name being searched for
+     * @param candidate normalized name being tested
+     * @param maxEdits maximum edit distance of interest
+     * @param prevRow scratch row of at least query.length() + 1 entries
+     * @param row second scratch row of the same size
+     * @return the distance, or maxEdits + 1 if it is larger than maxEdits
+     */
+    static int editDistance(String query, String candidate, int maxEdits, int[] prevRow, int[] row) {
+        int n = query.length();
+        if (Math.abs(n - candidate.length()) > maxEdits) return maxEdits + 1;
+        for (int i = 0; i <= n; i++) prevRow[i] = i;
+        for (int j = 0; j < candidate.length(); j++) {
+            char c = candidate.charAt(j);
+            row[0] = prevRow[0] + 1;
+            int rowMin = row[0];
+            for (int i = 1; i <= n; i++) {
+                int insert = row[i - 1] + 1;
+                int delete = prevRow[i] + 1;
+                int replace = prevRow[i - 1] + (query.charAt(i - 1) == c ? 0 : 1);
+                row[i] = Math.min(Math.min(insert, delete), replace);
+                rowMin = Math.min(rowMin, row[i]);
+            }
+            if (rowMin > maxEdits) return maxEdits + 1;
+            int[] swap = prevRow; prevRow = row; row = swap;
+        }
+        return Math.min(prevRow[n], maxEdits + 1);
+    }
+
+    /**
+     * Extend the edit-distance table by one character and recurse while within budget.
+     */
+    @SuppressWarnings("unchecked")
+    private void similarTo(Node node, char c, String query, int[] prevRow, int maxEdits,
+                           ArrayList<ArrayList<V>> byDistance) {
+        int n = query.length();
+        int[] row = new int[n + 1];
+        row[0] = prevRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i <= n; i++) {
+            int insert = row[i - 1] + 1;
+            int delete = prevRow[i] + 1;
+            int replace = prevRow[i - 1] + (query.charAt(i - 1) == c ? 0 : 1);
+            row[i] = Math.min(Math.min(insert, delete), replace);
+            rowMin = Math.min(rowMin, row[i]);
+        }
+        if (node.value != null && row[n] <= maxEdits) {
+            while (byDistance.size() <= row[n]) byDistance.add(new ArrayList<>());
+            byDistance.get(row[n]).add((V) node.value);
+        }
+        if (rowMin > maxEdits) return; // no key below here can come back within budget
+        for (int i = 0; i < node.size; i++) {
+            similarTo(node.children[i], node.labels[i], query, row, maxEdits, byDistance);
+        }
+    }
+}
@@ -0,0 +1,663 @@
+package com.TradingCard;
+
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+
+/**
+ * OffHeapCardCollection keeps the card pool in direct ByteBuffers outside the Java heap.
+ * <p>
+ * Each unique card is a fixed-size record in a chunked record area; its display name
+ * and normalized key are UTF-8 encoded into a chunked text area. Names are found
+ * through an open-addressing table of slot numbers, also held off-heap, that compares
+ * stored key hashes before key bytes. Mutations update records in place, so the heap
+ * only sees the Card objects built for results.
+ * <p>
+ * Cards returned from this collection are detached snapshots; counts change only
+ * through the collection's own methods. Memory is released when the collection
+ * becomes unreachable.
+ */
+public class OffHeapCardCollection extends CardCollection {
+    private static final Rarity[] RARITIES = Rarity.values();
+    private static final Variation[] VARIATIONS = Variation.values();
+
+    // record layout, one record per unique card
+    private static final int TEXT_ADDR = 0;      // long: address of name and key text
+    private static final int KEY_HASH = 8;       // int: hash of normalized key
+    private static final int COUNT = 12;         // int: copies on hand
+    private static final int BASE_UNSCALED = 16; // long: base value digits
+    private static final int VALUE_CENTS = 24;   // long: variation-adjusted value
+    private static final int RARITY = 32;        // byte: Rarity ordinal
+    private static final int VARIATION = 33;     // byte: Variation ordinal
+    private static final int BASE_SCALE = 34;    // byte: base value scale
+    private static final int RECORD_SIZE = 40;
+
+    private static final int RECORDS_PER_CHUNK_BITS = 16;
+    private static final int RECORDS_PER_CHUNK = 1 << RECORDS_PER_CHUNK_BITS;
+    private static final int TEXT_CHUNK_BYTES = 1 << 20;
+    private static final int INITIAL_TABLE_SLOTS = 1 << 10;
+    private static final int MAX_TABLE_SLOTS = 1 << 28; // 1 GiB of int entries
+
+    private final ArrayList<ByteBuffer> RECORDS; // chunks of RECORDS_PER_CHUNK records
+    private final ArrayList<ByteBuffer> TEXT;    // chunks of [nameLen][name][keyLen][key]
+    private ByteBuffer table;                    // int entries: slot + 1, 0 when empty
+    private int tableSlots;                      // entries in table, a power of two
+    private int size;                            // records in use
+    private int zeroCount;                       // records whose count is zero
+    // slots per CardPage.Order, null until first needed or after compaction; records appended
+    // since an order was built are past its length and are merged in when it is next read
+    private final int[][] ORDERS;
+
+    /**
+     * Constructs an empty OffHeapCardCollection.
+     */
+    public OffHeapCardCollection() {
+        this.RECORDS = new ArrayList<>();
+        this.TEXT = new ArrayList<>();
+        this.tableSlots = INITIAL_TABLE_SLOTS;
+        this.table = ByteBuffer.allocateDirect(tableSlots * Integer.BYTES);
+        this.ORDERS = new int[CardPage.Order.values().length][];
+    }
+
+    /**
+     * @param slot record number
+     * @return the chunk holding that record
+     */
+    private ByteBuffer chunk(int slot) {
+        return RECORDS.get(slot >>> RECORDS_PER_CHUNK_BITS);
+    }
+
+    /**
+     * @param slot record number
+     * @return the byte offset of that record within its chunk
+     */
+    private static int offset(int slot) {
+        return (slot & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+    }
+
+    /**
+     * @return hash with high bits folded in, since the table index uses only low bits
+     */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @param key normalized name
+     * @return the slot holding that key, or -1 if absent
+     */
+    private int slotOf(String key) {
+        int hash = key.hashCode();
+        byte[] keyBytes = null; // encoded only once a stored hash matches
+        int mask = tableSlots - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            int entry = table.getInt(i * Integer.BYTES);
+            if (entry == 0) return -1;
+            int slot = entry - 1;
+            if (chunk(slot).getInt(offset(slot) + KEY_HASH) != hash) continue;
+            if (keyBytes == null) keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            if (keyEquals(slot, keyBytes)) return slot;
+        }
+    }
+
+    /**
+     * Record a slot in an open-addressing table.
+     */
+    private static void insertIntoTable(ByteBuffer into, int slots, int hash, int slot) {
+        int mask = slots - 1;
+        int i = spread(hash) & mask;
+        while (into.getInt(i * Integer.BYTES) != 0) i = (i + 1) & mask;
+        into.putInt(i * Integer.BYTES, slot + 1);
+    }
+
+    /**
+     * Double the table once it passes half full, rehashing from stored key hashes.
+     */
+    private void growTableIfNeeded() {
+        if ((long) size * 2 <= tableSlots) return;
+        if (tableSlots >= MAX_TABLE_SLOTS) {
+            throw new IllegalStateException("collection is full.");
+        }
+        int grownSlots = tableSlots * 2;
+        ByteBuffer grown = ByteBuffer.allocateDirect(grownSlots * Integer.BYTES);
+        for (int s = 0; s < size; s++) {
+            insertIntoTable(grown, grownSlots, chunk(s).getInt(offset(s) + KEY_HASH), s);
+        }
+        table = grown;
+        tableSlots = grownSlots;
+    }
+
+    /**
+     * Store a card's name and key in the text area.
+     * @return the address of the stored text
+     */
+    private long appendText(byte[] name, byte[] key) {
+        int needed = Integer.BYTES * 2 + name.length + key.length;
+        if (needed > TEXT_CHUNK_BYTES) {
+            throw new IllegalArgumentException("card name too long for off-heap storage.");
+        }
+        ByteBuffer last = TEXT.isEmpty() ? null : TEXT.get(TEXT.size() - 1);
+        if (last == null || last.remaining() < needed) {
+            last = ByteBuffer.allocateDirect(TEXT_CHUNK_BYTES);
+            TEXT.add(last);
+        }
+        long addr = ((long) (TEXT.size() - 1) << 32) | last.position();
+        last.putInt(name.length).put(name).putInt(key.length).put(key);
+        return addr;
+    }
+
+    /**
+     * @param slot record number
+     * @param key true for the normalized key, false for the display name
+     * @return the decoded text
+     */
+    private String textAt(int slot, boolean key) {
+        return new String(textBytesAt(slot, key), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param slot record number
+     * @param key true for the normalized key, false for the display name
+     * @return the stored UTF-8 bytes
+     */
+    private byte[] textBytesAt(int slot, boolean key) {
+        long addr = chunk(slot).getLong(offset(slot) + TEXT_ADDR);
+        ByteBuffer text = TEXT.get((int) (addr >>> 32));
+        int pos = (int) addr;
+        int nameLen = text.getInt(pos);
+        if (key) {
+            pos += Integer.BYTES + nameLen;
+        }
+        byte[] bytes = new byte[text.getInt(pos)];
+        text.get(pos + Integer.BYTES, bytes);
+        return bytes;
+    }
+
+    /**
+     * @return true if the stored key of slot matches the given UTF-8 bytes
+     */
+    private boolean keyEquals(int slot, byte[] keyBytes) {
+        long addr = chunk(slot).getLong(offset(slot) + TEXT_ADDR);
+        ByteBuffer text = TEXT.get((int) (addr >>> 32));
+        int pos = (int) addr;
+        pos += Integer.BYTES + text.getInt(pos); // skip name
+        if (text.getInt(pos) != keyBytes.length) return false;
+        pos += Integer.BYTES;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (text.get(pos + i) != keyBytes[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the stored key of slot starts with the given UTF-8 bytes
+     */
+    private boolean keyStartsWith(int slot, byte[] prefixBytes) {
+        long addr = chunk(slot).getLong(offset(slot) + TEXT_ADDR);
+        ByteBuffer text = TEXT.get((int) (addr >>> 32));
+        int pos = (int) addr;
+        pos += Integer.BYTES + text.getInt(pos); // skip name
+        if (text.getInt(pos) < prefixBytes.length) return false;
+        pos += Integer.BYTES;
+        for (int i = 0; i < prefixBytes.length; i++) {
+            if (text.get(pos + i) != prefixBytes[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Append a new unique card as the next record.
+     */
+    private void append(Card c) {
+        BigDecimal base = c.getBaseValue(); // fits the record: Money.checkBaseValue passed when it was created
+        long textAddr = appendText(c.getName().getBytes(StandardCharsets.UTF_8),
+                c.getKey().getBytes(StandardCharsets.UTF_8));
+        int slot = nextSlot();
+        ByteBuffer chunk = chunk(slot);
+        int off = offset(slot);
+        chunk.putLong(off + TEXT_ADDR, textAddr)
+                .putInt(off + KEY_HASH, c.getKey().hashCode())
+                .putInt(off + COUNT, c.getCount())
+                .putLong(off + BASE_UNSCALED, base.unscaledValue().longValue())
+                .putLong(off + VALUE_CENTS, c.getValueCents())
+                .put(off + RARITY, (byte) c.getRarity().ordinal())
+                .put(off + VARIATION, (byte) c.getVariation().ordinal())
+                .put(off + BASE_SCALE, (byte) base.scale());
+        if (c.getCount() == 0) zeroCount++;
+        growTableIfNeeded();
+        insertIntoTable(table, tableSlots, c.getKey().hashCode(), slot); // cached orders take it when next read
+    }
+
+    /**
+     * Claim the next record, adding a chunk when the last one is full.
+     * @return the new record number
+     */
+    private int nextSlot() {
+        if ((size & (RECORDS_PER_CHUNK - 1)) == 0 && size >>> RECORDS_PER_CHUNK_BITS == RECORDS.size()) {
+            RECORDS.add(ByteBuffer.allocateDirect(RECORDS_PER_CHUNK * RECORD_SIZE));
+        }
+        return size++;
+    }
+
+    /**
+     * Append a copy of another collection's record, re-storing its text here.
+     * @param from collection holding the record
+     * @param slot record number in from
+     */
+    private void copyRecord(OffHeapCardCollection from, int slot) {
+        long textAddr = appendText(from.textBytesAt(slot, false), from.textBytesAt(slot, true));
+        int to = nextSlot();
+        ByteBuffer chunk = chunk(to);
+        int off = offset(to);
+        chunk.put(off, from.chunk(slot), offset(slot), RECORD_SIZE);
+        chunk.putLong(off + TEXT_ADDR, textAddr);
+        growTableIfNeeded();
+        insertIntoTable(table, tableSlots, chunk.getInt(off + KEY_HASH), to);
+    }
+
+    private int countAt(int slot) {
+        return chunk(slot).getInt(offset(slot) + COUNT);
+    }
+
+    private void setCount(int slot, int count) {
+        chunk(slot).putInt(offset(slot) + COUNT, count);
+    }
+
+    private long valueAt(int slot) {
+        return chunk(slot).getLong(offset(slot) + VALUE_CENTS);
+    }
+
+    /**
+     * Report a change in the record's copies, already applied, to the running totals
+     * and the zero-count tally.
+     */
+    private void record(int slot, int delta) {
+        ByteBuffer chunk = chunk(slot);
+        int off = offset(slot);
+        recordCopies(chunk.get(off + RARITY), chunk.get(off + VARIATION), chunk.getLong(off + VALUE_CENTS), delta);
+        int count = chunk.getInt(off + COUNT);
+        if (count == 0) zeroCount++;           // a decrease emptied the record
+        else if (count == delta) zeroCount--;  // an increase refilled an empty record
+    }
+
+    /**
+     * @param slot record number
+     * @return a definition equal to the one the record was created from
+     */
+    private CardDefinition definitionOf(int slot) {
+        ByteBuffer chunk = chunk(slot);
+        int off = offset(slot);
+        return CardDefinition.fromStorage(textAt(slot, false), RARITIES[chunk.get(off + RARITY)],
+                VARIATIONS[chunk.get(off + VARIATION)],
+                BigDecimal.valueOf(chunk.getLong(off + BASE_UNSCALED), chunk.get(off + BASE_SCALE)));
+    }
+
+    /**
+     * @param slot record number
+     * @return a detached Card built from the record
+     */
+    private Card materialize(int slot) {
+        return new Card(definitionOf(slot), countAt(slot));
+    }
+
+    /**
+     * @param slots slots to build cards for, in order
+     * @param n number of leading entries to use
+     * @return the matching cards
+     */
+    private ArrayList<Card> materializeAll(int[] slots, int n) {
+        ArrayList<Card> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(materialize(slots[i]));
+        return out;
+    }
+
+    /**
+     * Sort slots by display name, decoding each name once.
+     */
+    private void sortByName(int[] slots, int n) {
+        String[] names = new String[n];
+        int[] positions = new int[n]; // sorted in place of slots, so names needs only n entries
+        for (int i = 0; i < n; i++) {
+            names[i] = textAt(slots[i], false);
+            positions[i] = i;
+        }
+        Slots.sort(positions, n, (a, b) -> names[a].compareTo(names[b]));
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) sorted[i] = slots[positions[i]];
+        System.arraycopy(sorted, 0, slots, 0, n);
+    }
+
+    /**
+     * @return every slot, in name order
+     */
+    private int[] sortedSlots() {
+        return slotsIn(CardPage.Order.NAME);
+    }
+
+    /**
+     * @return every slot in the given page order, building the cached order on first use and
+     *         merging in the records appended since
+     */
+    private int[] slotsIn(CardPage.Order order) {
+        int[] slots = ORDERS[order.ordinal()];
+        if (slots == null) {
+            slots = new int[size];
+            for (int i = 0; i < size; i++) slots[i] = i;
+            sortIn(order, slots);
+            ORDERS[order.ordinal()] = slots;
+        } else if (slots.length < size) {
+            int[] added = new int[size - slots.length];
+            for (int i = 0; i < added.length; i++) added[i] = slots.length + i;
+            sortIn(order, added);
+            slots = Slots.merge(slots, added, (a, b) -> { // names are decoded only for the binary searches
+                int cmp = Long.compare(primary(order, a), primary(order, b));
+                return cmp != 0 ? cmp : textAt(a, false).compareTo(textAt(b, false));
+            });
+            ORDERS[order.ordinal()] = slots;
+        }
+        return slots;
+    }
+
+    /**
+     * Sort slots into a page order, decoding each name once.
+     */
+    private void sortIn(CardPage.Order order, int[] slots) {
+        sortByName(slots, slots.length); // stable, so the sort below keeps names in order within ties
+        if (order != CardPage.Order.NAME) {
+            Slots.sort(slots, slots.length, (a, b) -> Long.compare(primary(order, a), primary(order, b)));
+        }
+    }
+
+    /**
+     * @return the primary sort key of a record in the given page order
+     */
+    private long primary(CardPage.Order order, int slot) {
+        return switch (order) {
+            case NAME -> 0;
+            case VALUE -> valueAt(slot);
+            case RARITY -> chunk(slot).get(offset(slot) + RARITY);
+        };
+    }
+
+    /**
+     * @param slot slot to find
+     * @param name the name that was looked up, for the error message
+     * @return the slot, if present
+     * @throws NoSuchElementException if the name is not in the collection
+     */
+    private static int require(int slot, String name) {
+        if (slot < 0) throw notFound(name);
+        return slot;
+    }
+
+    @Override
+    public void addCard(Card c) {
+        int slot = slotOf(c.getKey());
+        if (slot < 0) {
+            checkCopies(c, c.getCount());
+            append(c); // new unique card
+            recordCopies(c, c.getCount());
+            return;
+        }
+        ByteBuffer chunk = chunk(slot);
+        int off = offset(slot);
+        if (chunk.get(off + RARITY) == c.getRarity().ordinal()
+                && chunk.get(off + VARIATION) == c.getVariation().ordinal()) {
+            checkValue(valueAt(slot));
+            setCount(slot, countAt(slot) + 1); // same card, increase count
+            record(slot, 1);
+        } else {
+            throw new IllegalArgumentException("card with same name but different attributes exists.");
+        }
+    }
+
+    @Override
+    protected void addCopies(Card c, int copies) {
+        int slot = slotOf(c.getKey());
+        checkCopies(c, copies);
+        if (slot < 0) {
+            append(new Card(c.getDefinition(), copies));
+            recordCopies(c, copies);
+            return;
+        }
+        setCount(slot, Math.addExact(countAt(slot), copies));
+        record(slot, copies);
+    }
+
+    @Override
+    public Card removeCardByName(String name) {
+        if (size == 0) {
+            throw new IllegalStateException("collection is empty!");
+        }
+        int slot = require(slotOf(Card.normalizeName(name)), name);
+        int count = countAt(slot);
+        if (count == 0) {
+            throw new IllegalStateException("no copies left of the requested card.");
+        }
+        setCount(slot, count - 1);
+        record(slot, -1);
+        return new Card(definitionOf(slot)); // removed copy, count=1
+    }
+
+    @Override
+    public Card findByCardName(String name) {
+        int slot = slotOf(Card.normalizeName(name));
+        return slot < 0 ? null : materialize(slot);
+    }
+
+    @Override
+    public ArrayList<Card> findByPrefix(String prefix, int limit) {
+        checkLimit(limit);
+        byte[] prefixBytes = Card.normalizeName(prefix).getBytes(StandardCharsets.UTF_8);
+        int[] hits = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (keyStartsWith(i, prefixBytes)) hits[n++] = i;
+        }
+        String[] keys = new String[size];
+        for (int i = 0; i < n; i++) keys[hits[i]] = textAt(hits[i], true);
+        Slots.sort(hits, n, (a, b) -> keys[a].compareTo(keys[b]));
+        return materializeAll(hits, Math.min(n, limit));
+    }
+
+    @Override
+    public ArrayList<Card> findSimilar(String name, int maxEdits, int limit) {
+        maxEdits = checkEdits(maxEdits);
+        checkLimit(limit);
+        String key = Card.normalizeName(name);
+        int[] prevRow = new int[key.length() + 1], row = new int[key.length() + 1];
+        int[] hits = new int[size];
+        int[] distances = new int[size];
+        String[] keys = new String[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            String candidate = textAt(i, true);
+            int d = NameTrie.editDistance(key, candidate, maxEdits, prevRow, row);
+            if (d <= maxEdits) {
+                distances[i] = d;
+                keys[i] = candidate;
+                hits[n++] = i;
+            }
+        }
+        Slots.sort(hits, n, (a, b) -> distances[a] != distances[b]
+                ? Integer.compare(distances[a], distances[b]) : keys[a].compareTo(keys[b]));
+        return materializeAll(hits, Math.min(n, limit));
+    }
+
+    @Override
+    public ArrayList<Card> findByAttributes(Rarity rarity, Variation variation) {
+        int r = rarity == null ? -1 : rarity.ordinal();
+        int v = variation == null ? -1 : variation.ordinal();
+        int[] hits = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            ByteBuffer chunk = chunk(i);
+            int off = offset(i);
+            if ((r < 0 || chunk.get(off + RARITY) == r) && (v < 0 || chunk.get(off + VARIATION) == v)) hits[n++] = i;
+        }
+        sortByName(hits, n);
+        return materializeAll(hits, n);
+    }
+
+    @Override
+    public ArrayList<Card> findByValueRange(BigDecimal min, BigDecimal max) {
+        checkRange(min, max);
+        long lo = Money.toCents(min, RoundingMode.CEILING);
+        long hi = Money.toCents(max, RoundingMode.FLOOR);
+        int[] hits = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            long value = valueAt(i);
+            if (countAt(i) > 0 && value >= lo && value <= hi) hits[n++] = i;
+        }
+        sortByName(hits, n); // stable, so the value sort below keeps names in order
+        Slots.sort(hits, n, (a, b) -> Long.compare(valueAt(a), valueAt(b)));
+        return materializeAll(hits, n);
+    }
+
+    @Override
+    public ArrayList<Card> findTopByValue(int k) {
+        checkLimit(k);
+        int[] hits = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (countAt(i) > 0) hits[n++] = i;
+        }
+        sortByName(hits, n); // stable, so the value sort below keeps names in order
+        Slots.sort(hits, n, (a, b) -> Long.compare(valueAt(b), valueAt(a)));
+        return materializeAll(hits, Math.min(n, k));
+    }
+
+    @Override
+    public void incrementCard(String name) {
+        int slot = require(slotOf(Card.normalizeName(name)), name);
+        checkValue(valueAt(slot));
+        setCount(slot, countAt(slot) + 1);
+        record(slot, 1);
+    }
+
+    @Override
+    public void decrementCard(String name) {
+        int slot = require(slotOf(Card.normalizeName(name)), name);
+        int count = countAt(slot);
+        if (count > 0) {
+            setCount(slot, count - 1);
+            record(slot, -1);
+        } else throw new IllegalStateException("card count is already at 0!");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Splits halve the name-ordered slot array and build cards one at a time, so
+     * parallel streams never materialize the whole collection.
+     */
+    @Override
+    public Spliterator<Card> spliterator() {
+        int[] slots = sortedSlots();
+        return new SlotSpliterator(slots, 0, slots.length, this::materialize);
+    }
+
+    @Override
+    protected CardPage page(CardPage.Order order, CardPage.Cursor cursor, boolean forward, int limit) {
+        Slots.Position position = cursor == null ? null : slot -> {
+            int cmp = Long.compare(primary(order, slot), cursor.getPrimary());
+            return cmp != 0 ? cmp : textAt(slot, false).compareTo(cursor.getName());
+        };
+        return Slots.page(order, slotsIn(order), cursor, position, forward, limit, this::materialize);
+    }
+
+    @Override
+    public int getZeroCountEntries() {
+        return zeroCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Surviving records and their text are copied into fresh buffers with a new
+     * table, which replace the old ones only once complete; the old buffers are
+     * then released with the garbage they become. Record numbers change, so
+     * cached orders are rebuilt on next use.
+     */
+    @Override
+    public ArrayList<Card> compact(Predicate<String> retain) {
+        ArrayList<Card> purged = new ArrayList<>();
+        if (zeroCount == 0) return purged;
+        OffHeapCardCollection fresh = new OffHeapCardCollection();
+        for (int i = 0; i < size; i++) {
+            if (countAt(i) == 0 && !retain.test(textAt(i, true))) purged.add(materialize(i));
+            else fresh.copyRecord(this, i);
+        }
+        if (purged.isEmpty()) return purged;
+
+        // swap the rebuilt storage in
+        RECORDS.clear();
+        RECORDS.addAll(fresh.RECORDS);
+        TEXT.clear();
+        TEXT.addAll(fresh.TEXT);
+        table = fresh.table;
+        tableSlots = fresh.tableSlots;
+        size = fresh.size;
+        zeroCount -= purged.size();
+        Arrays.fill(ORDERS, null);
+        return purged;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ArrayList<Card> getSortedCopy() {
+        int[] slots = sortedSlots();
+        return materializeAll(slots, slots.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cards are built one at a time as the view is iterated.
+     */
+    @Override
+    public Collection<Card> getSortedView() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Card> iterator() {
+                int[] slots = sortedSlots();
+                return new Iterator<>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < slots.length;
+                    }
+
+                    @Override
+                    public Card next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return materialize(slots[next++]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.TradingCard;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * PresortedMap presents a list of entries, already sorted by key, as a SortedMap.
+ * <p>
+ * {@link java.util.TreeMap#putAll} on an empty tree recognises a sorted source with the
+ * same comparator and builds the tree in one linear pass, without the rebalancing a
+ * put per entry costs. This class exists to be handed to it, but is a complete read-only
+ * SortedMap: lookups and range views binary-search the list, and a range view is a
+ * sublist of it. Range views clip keys outside their range rather than rejecting them.
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class PresortedMap<K, V> extends AbstractMap<K, V> implements SortedMap<K, V> {
+    private final Comparator<? super K> COMPARATOR; // the target tree's comparator, null for natural order
+    private final List<Map.Entry<K, V>> ENTRIES;    // distinct keys in ascending order
+
+    /**
+     * Constructs a PresortedMap.
+     * @param comparator comparator the entries are sorted by, null for natural order
+     * @param entries entries with distinct keys, in ascending key order
+     */
+    PresortedMap(Comparator<? super K> comparator, List<Map.Entry<K, V>> entries) {
+        this.COMPARATOR = comparator;
+        this.ENTRIES = entries;
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return COMPARATOR;
+    }
+
+    @Override
+    public int size() {
+        return ENTRIES.size();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return ENTRIES.iterator();
+            }
+
+            @Override
+            public int size() {
+                return ENTRIES.size();
+            }
+        };
+    }
+
+    @Override
+    public V get(Object key) {
+        int i = find(key);
+        return i < 0 ? null : ENTRIES.get(i).getValue();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public K firstKey() {
+        if (ENTRIES.isEmpty()) throw new NoSuchElementException();
+        return ENTRIES.get(0).getKey();
+    }
+
+    @Override
+    public K lastKey() {
+        if (ENTRIES.isEmpty()) throw new NoSuchElementException();
+        return ENTRIES.get(ENTRIES.size() - 1).getKey();
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        if (compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new PresortedMap<>(COMPARATOR, ENTRIES.subList(lowerBound(fromKey), lowerBound(toKey)));
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return new PresortedMap<>(COMPARATOR, ENTRIES.subList(0, lowerBound(toKey)));
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return new PresortedMap<>(COMPARATOR, ENTRIES.subList(lowerBound(fromKey), ENTRIES.size()));
+    }
+
+    /**
+     * @return index of the entry with this key, or -1 if there is none
+     */
+    @SuppressWarnings("unchecked")
+    private int find(Object key) {
+        K k = (K) key; // a key of another type fails in compare, as in TreeMap
+        int i = lowerBound(k);
+        return i < ENTRIES.size() && compare(ENTRIES.get(i).getKey(), k) == 0 ? i : -1;
+    }
+
+    /**
+     * @return index of the first entry whose key is not below key; size() if there is none
+     */
+    private int lowerBound(K key) {
+        int lo = 0;
+        int hi = ENTRIES.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(ENTRIES.get(mid).getKey(), key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(K a, K b) {
+        return COMPARATOR == null ? ((Comparable<? super K>) a).compareTo(b) : COMPARATOR.compare(a, b);
+    }
+}
@@ -0,0 +1,103 @@
+package com.TradingCard;
+
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+
+import java.util.Arrays;
+
+/**
+ * RunningStatistics keeps copy and value totals for a card container.
+ * <p>
+ * Containers report every change in copies as it happens, so reading the totals
+ * never walks the cards. Values are kept in cents as elsewhere in the package.
+ * The inventory keeps one more for all binders and one for all decks together.
+ */
+public class RunningStatistics {
+    private final long[] COPIES_BY_RARITY = new long[Rarity.values().length];                  // copies per Rarity ordinal
+    private final long[] COPIES_BY_VARIATION = new long[Variation.values().length];            // copies per Variation ordinal
+    private final long[] VALUE_CENTS_BY_RARITY = new long[Rarity.values().length];             // value per Rarity ordinal
+    private final long[] VALUE_CENTS_BY_VARIATION = new long[Variation.values().length];       // value per Variation ordinal
+    private long totalCopies;                                                                  // copies across all cards
+    private long totalValueCents;                                                              // value across all cards
+
+    /**
+     * Add totals gathered elsewhere, such as those stored with a saved collection.
+     * @param rarity ordinal of the cards' Rarity
+     * @param variation ordinal of the cards' Variation
+     * @param copies copies to add
+     * @param valueCents adjusted value of those copies together, in cents
+     * @throws ArithmeticException if a value total overflows
+     */
+    void add(int rarity, int variation, long copies, long valueCents) {
+        this.totalValueCents = Math.addExact(this.totalValueCents, valueCents);
+        this.VALUE_CENTS_BY_RARITY[rarity] += valueCents;
+        this.VALUE_CENTS_BY_VARIATION[variation] += valueCents;
+        this.COPIES_BY_RARITY[rarity] += copies;
+        this.COPIES_BY_VARIATION[variation] += copies;
+        this.totalCopies += copies;
+    }
+
+    /**
+     * Check that a value can be added to the totals, so a container can refuse copies
+     * before changing anything else.
+     * @param valueCents value about to be recorded, in cents
+     * @throws ArithmeticException if the total value would overflow
+     */
+    public void checkAdd(long valueCents) {
+        Math.addExact(this.totalValueCents, valueCents);
+    }
+
+    /**
+     * Record copies of a card entering (positive delta) or leaving (negative delta) the container.
+     * @param rarity ordinal of the card's Rarity
+     * @param variation ordinal of the card's Variation
+     * @param valueCents adjusted value of one copy in cents
+     * @param delta change in copies
+     * @throws ArithmeticException if a value total overflows
+     */
+    void record(int rarity, int variation, long valueCents, int delta) {
+        long value = Math.multiplyExact(valueCents, (long) delta);
+        this.totalValueCents = Math.addExact(this.totalValueCents, value);
+        this.VALUE_CENTS_BY_RARITY[rarity] += value;
+        this.VALUE_CENTS_BY_VARIATION[variation] += value;
+        this.COPIES_BY_RARITY[rarity] += delta;
+        this.COPIES_BY_VARIATION[variation] += delta;
+        this.totalCopies += delta;
+    }
+
+    /**
+     * Record copies of a card entering or leaving the container.
+     * @param c card whose attributes are recorded; its own count is ignored
+     * @param delta change in copies
+     */
+    public void record(Card c, int delta) {
+        record(c.getRarity().ordinal(), c.getVariation().ordinal(), c.getValueCents(), delta);
+    }
+
+    /**
+     * Forget every recorded copy, for containers that were emptied at once.
+     */
+    void clear() {
+        Arrays.fill(COPIES_BY_RARITY, 0);
+        Arrays.fill(COPIES_BY_VARIATION, 0);
+        Arrays.fill(VALUE_CENTS_BY_RARITY, 0);
+        Arrays.fill(VALUE_CENTS_BY_VARIATION, 0);
+        this.totalCopies = 0;
+        this.totalValueCents = 0;
+    }
+
+    /**
+     * @return total value in cents
+     */
+    long getTotalValueCents() {
+        return totalValueCents;
+    }
+
+    /**
+     * @return an immutable copy of the current totals
+     */
+    public CardStatistics snapshot() {
+        return new CardStatistics(totalCopies, totalValueCents, COPIES_BY_RARITY, COPIES_BY_VARIATION,
+                VALUE_CENTS_BY_RARITY, VALUE_CENTS_BY_VARIATION);
+    }
+}
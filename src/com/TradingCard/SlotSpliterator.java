@@ -0,0 +1,68 @@
+package com.TradingCard;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * SlotSpliterator walks a range of an int slot array, building a Card per slot.
+ * <p>
+ * Used by storage modes that address cards by slot number. Splitting halves the
+ * remaining range, so parallel streams divide the work evenly without copying,
+ * and every part knows its exact size.
+ */
+final class SlotSpliterator implements Spliterator<Card> {
+    private static final int MIN_SPLIT = 64; // ranges smaller than this are not worth splitting
+
+    private final int[] SLOTS;                      // slot numbers in encounter order
+    private final IntFunction<Card> MATERIALIZE;    // builds the card stored at a slot
+    private int from;                               // next index to visit
+    private final int TO;                           // index one past the last to visit
+
+    /**
+     * Constructs a SlotSpliterator over slots[from, to).
+     * @param slots slot numbers in encounter order; not modified
+     * @param from first index to visit
+     * @param to index one past the last to visit
+     * @param materialize builds the card stored at a slot
+     */
+    SlotSpliterator(int[] slots, int from, int to, IntFunction<Card> materialize) {
+        this.SLOTS = slots;
+        this.from = from;
+        this.TO = to;
+        this.MATERIALIZE = materialize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Card> action) {
+        if (from >= TO) return false;
+        action.accept(MATERIALIZE.apply(SLOTS[from++]));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Card> action) {
+        int i = from;
+        from = TO; // consumed even if the action throws
+        for (; i < TO; i++) action.accept(MATERIALIZE.apply(SLOTS[i]));
+    }
+
+    @Override
+    public Spliterator<Card> trySplit() {
+        int mid = (from + TO) >>> 1;
+        if (mid - from < MIN_SPLIT) return null;
+        SlotSpliterator prefix = new SlotSpliterator(SLOTS, from, mid, MATERIALIZE);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return TO - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
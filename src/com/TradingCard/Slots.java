@@ -0,0 +1,122 @@
+package com.TradingCard;
+
+import java.util.ArrayList;
+import java.util.function.IntFunction;
+
+/**
+ * Slots holds sorting helpers for storage modes that address cards by int slot number.
+ * <p>
+ * Sorting int arrays with a slot comparison avoids boxing every slot into an Integer.
+ */
+final class Slots {
+
+    /**
+     * A comparison between two slots.
+     */
+    interface Order {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Where a slot's sort key lies relative to a fixed position.
+     */
+    interface Position {
+        /**
+         * @return negative, zero or positive as the slot sorts before, at or after the position
+         */
+        int compare(int slot);
+    }
+
+    private Slots() {
+        // static helpers only
+    }
+
+    /**
+     * Stable merge sort of the first n slots.
+     * @param slots slot numbers to reorder in place
+     * @param n number of leading entries to sort
+     * @param order comparison between two slots
+     */
+    static void sort(int[] slots, int n, Order order) {
+        int[] buf = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n - width; lo += 2 * width) {
+                int mid = lo + width, hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) buf[k++] = order.compare(slots[i], slots[j]) <= 0 ? slots[i++] : slots[j++];
+                while (i < mid) buf[k++] = slots[i++];
+                while (j < hi) buf[k++] = slots[j++];
+                System.arraycopy(buf, lo, slots, lo, hi - lo);
+            }
+        }
+    }
+
+    /**
+     * Binary search of sorted slots for the first one past a position.
+     * @param slots slot numbers, sorted consistently with position
+     * @param position where the boundary lies
+     * @param includeEqual true to stop at a slot equal to the position, false to pass it
+     * @return index of the first slot after (or at) the position, or slots.length
+     */
+    static int boundary(int[] slots, Position position, boolean includeEqual) {
+        int lo = 0, hi = slots.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = position.compare(slots[mid]);
+            if (cmp > 0 || (includeEqual && cmp == 0)) hi = mid;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Merge further slots into slots already sorted by an order. Each new slot is placed by
+     * binary search, so the order is consulted about k log n times for k new slots, and
+     * both arrays are copied once.
+     * @param slots slot numbers sorted by order, not to be modified
+     * @param added further slot numbers sorted by order, none already in slots
+     * @param order comparison between two slots
+     * @return a new array holding both, sorted
+     */
+    static int[] merge(int[] slots, int[] added, Order order) {
+        int[] merged = new int[slots.length + added.length];
+        int copied = 0; // slots already in merged
+        int k = 0;
+        for (int slot : added) {
+            int at = boundary(slots, s -> order.compare(s, slot), false); // never before copied, as added is sorted
+            System.arraycopy(slots, copied, merged, k, at - copied);
+            k += at - copied;
+            copied = at;
+            merged[k++] = slot;
+        }
+        System.arraycopy(slots, copied, merged, k, slots.length - copied);
+        return merged;
+    }
+
+    /**
+     * Take one page from slots sorted in the page order, building cards only for the page.
+     * @param order order the slots are sorted in
+     * @param slots slot numbers in that order
+     * @param cursor position to page from, or null for the start (or end, going backward)
+     * @param position the cursor's position against slots, or null with a null cursor
+     * @param forward true for the page after the cursor, false for the page before it
+     * @param limit maximum cards on the page
+     * @param materialize builds the card stored at a slot
+     * @return the page
+     */
+    static CardPage page(CardPage.Order order, int[] slots, CardPage.Cursor cursor, Position position,
+                         boolean forward, int limit, IntFunction<Card> materialize) {
+        int n = slots.length;
+        int from, to;
+        if (forward) {
+            from = cursor == null ? 0 : boundary(slots, position, cursor.isInclusive());
+            to = (int) Math.min(n, (long) from + limit);
+        } else {
+            to = cursor == null ? n : boundary(slots, position, !cursor.isInclusive());
+            from = Math.max(0, to - limit);
+        }
+        ArrayList<Card> cards = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) cards.add(materialize.apply(slots[i]));
+        return new CardPage(order, cards, from > 0, to < n);
+    }
+}
@@ -0,0 +1,339 @@
+package com.System;
+
+import com.TradingCard.Binder;
+import com.TradingCard.Card;
+import com.TradingCard.Deck;
+import com.TradingCard.Enums.Rarity;
+import com.TradingCard.Enums.Variation;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * StorageRoundTrip checks the journal and snapshot file formats by writing them, reopening
+ * them into a new system, and comparing the restored state with the one that was saved.
+ * <p>
+ * It covers a full journal replay, a journal cut short at every kind of point a crash
+ * can leave, records failing their checksum, a card batch spread over several records,
+ * restoring a snapshot and replaying the journal from its mark, and the snapshot
+ * location's generation pointer. Run it with the sources on the class path; it throws
+ * an {@link AssertionError} at the first check that fails.
+ */
+public class StorageRoundTrip {
+    private static final int HEADER = 12;  // journal magic + offset of the first record
+    private static final int BATCH = 2500; // spans several ADD_CARDS records
+
+    private final Path DIR;
+    private int checks;
+
+    /**
+     * Constructs a StorageRoundTrip writing its files under a directory.
+     * @param dir scratch directory, removed by the caller
+     */
+    private StorageRoundTrip(Path dir) {
+        this.DIR = dir;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("tcis-round-trip");
+        try {
+            StorageRoundTrip run = new StorageRoundTrip(dir);
+            run.journalReplay();
+            run.tornTail();
+            run.checksum();
+            run.tornBatch();
+            run.replayFromMark();
+            run.generationPointer();
+            System.out.println(run.checks + " checks passed");
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * Every kind of record, written and replayed into a new system, restores the same state.
+     */
+    private void journalReplay() throws IOException {
+        Path journal = DIR.resolve("replay.journal");
+        InventorySystem written = new InventorySystem();
+        written.openJournal(journal);
+        mutate(written, journal, null, null);
+        String expected = state(written);
+        written.closeJournal();
+
+        InventorySystem restored = new InventorySystem();
+        restored.openJournal(journal);
+        check(expected.equals(state(restored)), "replayed journal restores the state written");
+        restored.closeJournal();
+    }
+
+    /**
+     * A journal cut anywhere inside a record replays the records before it and is
+     * truncated to the last whole record.
+     */
+    private void tornTail() throws IOException {
+        Path journal = DIR.resolve("torn.journal");
+        ArrayList<Long> ends = new ArrayList<>();
+        ArrayList<String> states = new ArrayList<>();
+        InventorySystem written = new InventorySystem();
+        written.openJournal(journal);
+        mutate(written, journal, ends, states);
+        written.closeJournal();
+        byte[] full = Files.readAllBytes(journal);
+
+        for (int k = 1; k < ends.size(); k++) {
+            long from = ends.get(k - 1);
+            long to = ends.get(k);
+            for (long cut : new long[] { from + 1, from + 8, (from + to) / 2, to - 1 }) {
+                if (cut <= from || cut >= to) continue;
+                Files.write(journal, Arrays.copyOf(full, (int) cut));
+                InventorySystem restored = new InventorySystem();
+                restored.openJournal(journal);
+                check(states.get(k - 1).equals(state(restored)), "journal cut at " + cut + " restores the records before it");
+                restored.closeJournal();
+                check(Files.size(journal) == from, "journal cut at " + cut + " is truncated to " + from);
+            }
+        }
+    }
+
+    /**
+     * A record whose payload fails its checksum ends replay there, as a torn write would.
+     */
+    private void checksum() throws IOException {
+        Path journal = DIR.resolve("checksum.journal");
+        ArrayList<Long> ends = new ArrayList<>();
+        ArrayList<String> states = new ArrayList<>();
+        InventorySystem written = new InventorySystem();
+        written.openJournal(journal);
+        mutate(written, journal, ends, states);
+        written.closeJournal();
+        byte[] full = Files.readAllBytes(journal);
+
+        for (int k : new int[] { 1, ends.size() / 2, ends.size() - 1 }) {
+            byte[] damaged = full.clone();
+            int at = (int) (ends.get(k - 1) + 8); // first payload byte: the operation code
+            damaged[at] ^= 0x40;
+            Files.write(journal, damaged);
+            InventorySystem restored = new InventorySystem();
+            restored.openJournal(journal);
+            check(states.get(k - 1).equals(state(restored)), "record " + k + " failing its checksum is not replayed");
+            restored.closeJournal();
+            check(Files.size(journal) == ends.get(k - 1), "journal is truncated before the damaged record " + k);
+        }
+    }
+
+    /**
+     * A batch spread over several records replays whole or not at all.
+     */
+    private void tornBatch() throws IOException {
+        Path journal = DIR.resolve("batch.journal");
+        InventorySystem written = new InventorySystem();
+        written.openJournal(journal);
+        written.addCardToCollection(card("before", 1));
+        long start = Files.size(journal);
+        String before = state(written);
+        written.addCardsToCollection(batch("batch", BATCH));
+        String after = state(written);
+        written.closeJournal();
+        byte[] full = Files.readAllBytes(journal);
+
+        for (long cut = start + 1; cut < full.length; cut += (full.length - start) / 7) {
+            Files.write(journal, Arrays.copyOf(full, (int) cut));
+            InventorySystem restored = new InventorySystem();
+            restored.openJournal(journal);
+            check(before.equals(state(restored)), "batch cut at " + cut + " is dropped whole");
+            restored.closeJournal();
+            check(Files.size(journal) == start, "batch cut at " + cut + " is truncated to the batch start");
+        }
+        Files.write(journal, full);
+        InventorySystem restored = new InventorySystem();
+        restored.openJournal(journal);
+        check(after.equals(state(restored)), "whole batch replays");
+        restored.closeJournal();
+    }
+
+    /**
+     * A snapshot restores the state it captured, the journal is trimmed to the records
+     * after its mark, and replaying those restores the rest, in both restore paths.
+     */
+    private void replayFromMark() throws IOException {
+        Path journal = DIR.resolve("mark.journal");
+        Path snapshot = DIR.resolve("mark.snapshot");
+        InventorySystem written = new InventorySystem();
+        written.openJournal(journal);
+        mutate(written, journal, null, null);
+        written.saveSnapshot(snapshot).join();
+        check(Files.size(journal) == HEADER, "journal is trimmed to its header after the snapshot");
+        written.addCardToCollection(card("after snapshot", 3));
+        written.incrementCardInCollection("after snapshot");
+        written.addCardsToCollection(batch("late", BATCH));
+        String expected = state(written);
+        written.closeJournal();
+
+        InventorySystem mapped = InventorySystem.openSnapshot(snapshot);
+        mapped.openJournal(journal);
+        check(expected.equals(state(mapped)), "mapped snapshot plus journal from its mark restores the state");
+        mapped.closeJournal();
+
+        InventorySystem loaded = new InventorySystem();
+        loaded.loadSnapshot(snapshot);
+        loaded.openJournal(journal);
+        check(expected.equals(state(loaded)), "loaded snapshot plus journal from its mark restores the state");
+        loaded.closeJournal();
+
+        try {
+            new InventorySystem().openJournal(journal);
+            check(false, "trimmed journal without its snapshot is refused");
+        } catch (IOException e) {
+            check(true, "trimmed journal without its snapshot is refused");
+        }
+    }
+
+    /**
+     * Each save writes a new generation and moves the pointer to it, older generations
+     * are removed, and a pointer naming a missing or damaged generation is refused.
+     */
+    private void generationPointer() throws IOException {
+        Path snapshot = DIR.resolve("pointer.snapshot");
+        InventorySystem written = new InventorySystem();
+        written.addCardToCollection(card("first", 1));
+        written.saveSnapshot(snapshot).join();
+        long first = generation(snapshot);
+        written.addCardToCollection(card("second", 2));
+        written.saveSnapshot(snapshot).join();
+        long second = generation(snapshot);
+        String expected = state(written);
+
+        check(second > first, "pointer moves to a newer generation");
+        check(Files.exists(generationFile(snapshot, second)), "current generation exists");
+        check(!Files.exists(generationFile(snapshot, first)), "older generation is deleted");
+        InventorySystem loaded = new InventorySystem();
+        loaded.loadSnapshot(snapshot);
+        check(expected.equals(state(loaded)), "snapshot restores the state of the latest save");
+
+        byte[] pointer = Files.readAllBytes(snapshot);
+        Files.write(snapshot, ByteBuffer.wrap(pointer.clone()).putLong(4, second + 1).array());
+        refused(snapshot, "pointer naming a missing generation is refused");
+        Files.write(snapshot, pointer);
+
+        Path file = generationFile(snapshot, second);
+        byte[] image = Files.readAllBytes(file);
+        byte[] damaged = image.clone();
+        damaged[damaged.length / 2] ^= 0x01;
+        Files.write(file, damaged);
+        refused(snapshot, "generation failing its checksum is refused");
+        Files.write(file, image);
+    }
+
+    /**
+     * Apply one of each journaled mutation, noting the journal size and state after each.
+     * @param journal the system's journal file
+     * @param ends journal sizes, starting with the empty journal, or null
+     * @param states states matching ends, or null
+     */
+    private static void mutate(InventorySystem s, Path journal, List<Long> ends, List<String> states) throws IOException {
+        List<Runnable> steps = List.of(
+                () -> s.addCardToCollection(card("Alpha", 1)),
+                () -> s.addCardToCollection(card("Beta", 2)),
+                () -> s.addCardToCollection(card("Gamma é", 3)),
+                () -> s.incrementCardInCollection("alpha"),
+                () -> s.incrementCardInCollection("beta"),
+                () -> s.decrementCardInCollection("beta"),
+                () -> s.createBinder("Trade Binder", 10),
+                () -> s.addCardToBinder("Trade Binder", "Alpha"),
+                () -> s.addCardToBinder("Trade Binder", "Gamma é"),
+                () -> s.removeCardFromBinder("Trade Binder", "Gamma é"),
+                () -> s.tradeCard("Trade Binder", "Alpha", card("Delta", 1), true),
+                () -> s.createDeck("Main Deck", 5),
+                () -> s.addCardToDeck("Main Deck", "Beta"),
+                () -> s.addCardToDeck("Main Deck", "Gamma é"),
+                () -> s.deleteCardFromDeck("Main Deck", "Beta"),
+                () -> s.addCardsToCollection(batch("bulk", BATCH)),
+                () -> s.removeSingleCardFromCollection("bulk 7"),
+                () -> s.compactCollection(),
+                () -> s.createBinder("Spare", 4),
+                () -> s.deleteBinders(List.of("Spare", "Trade Binder")),
+                () -> s.deleteDecks(List.of("Main Deck")));
+        if (ends != null) {
+            s.flushJournal();
+            ends.add(Files.size(journal));
+            states.add(state(s));
+        }
+        for (Runnable step : steps) {
+            step.run();
+            if (ends != null) {
+                s.flushJournal();
+                ends.add(Files.size(journal));
+                states.add(state(s));
+            }
+        }
+    }
+
+    /**
+     * Describe everything the journal and snapshot restore, in a comparable form.
+     */
+    private static String state(InventorySystem s) {
+        StringBuilder b = new StringBuilder();
+        for (Card c : s.getCardCollection().getSortedCopy()) b.append(describe(c)).append(';');
+        for (String name : s.getBinderNames()) {
+            Binder binder = s.findBinderByName(name);
+            b.append("\nbinder ").append(name).append('/').append(binder.getCapacity()).append(':');
+            for (Card c : binder.getSortedCopy()) b.append(describe(c)).append(';');
+        }
+        for (String name : s.getDeckNames()) {
+            Deck deck = s.findDeckByName(name);
+            b.append("\ndeck ").append(name).append('/').append(deck.getCapacity()).append(':');
+            for (Card c : deck.getView()) b.append(describe(c)).append(';');
+        }
+        return b.append('\n').append(s.getStatistics().getOverall()).toString();
+    }
+
+    private static String describe(Card c) {
+        return c.getName() + ' ' + c.getRarity() + ' ' + c.getVariation() + ' ' + c.getBaseValue() + " x" + c.getCount();
+    }
+
+    private static Card card(String name, int value) {
+        return new Card(name, Rarity.RARE, Variation.NORMAL, BigDecimal.valueOf(value * 125L, 2));
+    }
+
+    private static List<Card> batch(String prefix, int n) {
+        ArrayList<Card> cards = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) cards.add(new Card(prefix + " " + i, Rarity.COMMON, Variation.NORMAL, BigDecimal.ONE));
+        return cards;
+    }
+
+    /**
+     * @return the generation a snapshot location's pointer names
+     */
+    private static long generation(Path snapshot) throws IOException {
+        ByteBuffer pointer = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+        return pointer.getLong(4); // after the magic number
+    }
+
+    private static Path generationFile(Path snapshot, long generation) {
+        return snapshot.resolveSibling(snapshot.getFileName() + "." + generation);
+    }
+
+    private void refused(Path snapshot, String what) {
+        try {
+            new InventorySystem().loadSnapshot(snapshot);
+            check(false, what);
+        } catch (IOException e) {
+            check(true, what);
+        }
+    }
+
+    private void check(boolean ok, String what) {
+        if (!ok) throw new AssertionError(what);
+        checks++;
+    }
+}